@@ -0,0 +1,59 @@
+package sn.ditontineplateform.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sn.ditontineplateform.utils.JwtClaims;
+import sn.ditontineplateform.utils.RequestHeaderParser;
+import sn.ditontineplateform.utils.ResponseMessageConstants;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pose sur chaque requête authentifiée un {@link JwtClaims} immuable. Lorsque le resource server a déjà
+ * décodé le token, ses claims sont réutilisés ; sinon le payload est décodé une seule fois ici.
+ */
+@Component
+public class JwtClaimsFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    if (request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE) == null) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+        request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, fromJwt(jwtAuthentication.getToken()));
+      } else if (isBearer(request.getHeader(ResponseMessageConstants.AUTHORIZATION))) {
+        RequestHeaderParser.claims(request);
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private static boolean isBearer(String authorization) {
+    return authorization != null && authorization.startsWith(ResponseMessageConstants.BEARER);
+  }
+
+  private static JwtClaims fromJwt(Jwt jwt) {
+    Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+    List<String> roles = List.of();
+    if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> realmRoles) {
+      roles = realmRoles.stream().map(String::valueOf).toList();
+    }
+    return new JwtClaims(jwt.getSubject(), jwt.getClaimAsString("email"), roles);
+  }
+}
@@ -0,0 +1,83 @@
+package sn.ditontineplateform.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des autorités Spring calculées à partir des claims de rôles Keycloak. Un même utilisateur
+ * présente les mêmes rôles pendant toute la durée de vie de ses tokens : la combinaison rôles realm
+ * × rôles client sert de clé et l'ensemble d'autorités immuable correspondant est réutilisé.
+ */
+@Component
+public class KeycloakAuthoritiesCache {
+
+  private final Cache<RoleClaims, List<GrantedAuthority>> cache;
+  private final Map<String, GrantedAuthority> interned = new ConcurrentHashMap<>();
+
+  @Autowired
+  public KeycloakAuthoritiesCache(
+      @Value("${keycloak-client.authorities-cache.max-size:1000}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this(maxSize);
+    Gauge.builder("keycloak.authorities.cache.size", cache, Cache::estimatedSize)
+        .description("Combinaisons de rôles en cache")
+        .register(meterRegistry);
+    Gauge.builder("keycloak.authorities.cache.hit.ratio", cache, c -> c.stats().hitRate())
+        .description("Taux de succès du cache des autorités")
+        .register(meterRegistry);
+  }
+
+  private KeycloakAuthoritiesCache(long maxSize) {
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+  }
+
+  /**
+   * Retourne les autorités correspondant aux rôles du token.
+   *
+   * @param realmRoles  rôles de {@code realm_access}
+   * @param clientRoles rôles de {@code resource_access.<client>}, ou {@code null} si le token n'a pas
+   *     d'entrée pour le client
+   */
+  public List<GrantedAuthority> authorities(
+      Collection<String> realmRoles, Collection<String> clientRoles) {
+    if (realmRoles == null || realmRoles.isEmpty()) {
+      return List.of();
+    }
+    return cache.get(new RoleClaims(realmRoles, clientRoles), this::compute);
+  }
+
+  private List<GrantedAuthority> compute(RoleClaims claims) {
+    List<GrantedAuthority> authorities = new ArrayList<>();
+    for (String realmRole : claims.realmRoles()) {
+      if (claims.clientRoles() == null) {
+        authorities.add(intern(realmRole));
+      } else {
+        for (String clientRole : claims.clientRoles()) {
+          authorities.add(intern((realmRole + "_" + clientRole).toUpperCase(Locale.ROOT)));
+        }
+      }
+    }
+    return List.copyOf(authorities);
+  }
+
+  private GrantedAuthority intern(String role) {
+    return interned.computeIfAbsent(role, SimpleGrantedAuthority::new);
+  }
+
+  /** Empreinte des claims de rôles ; les collections issues du token ne sont pas copiées. */
+  private record RoleClaims(Collection<String> realmRoles, Collection<String> clientRoles) {}
+}
@@ -1,8 +1,13 @@
 package sn.ditontineplateform.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient43Engine;
 import org.jboss.resteasy.client.jaxrs.internal.ResteasyClientBuilderImpl;
 import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
@@ -10,6 +15,12 @@ import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import sn.ditontineplateform.security.client.KeycloakWriteClient;
+import sn.ditontineplateform.utils.InstrumentedConnectionManager;
+import sn.ditontineplateform.utils.OutboundHeadersInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
@@ -29,20 +40,74 @@ public class KeycloakClientConfig {
   @Value("${keycloak-client.realm}")
   private String realm;
 
+  @Value("${keycloak-client.admin-pool.read.max-connections:20}")
+  private int readMaxConnections;
+
+  @Value("${keycloak-client.admin-pool.write.max-connections:10}")
+  private int writeMaxConnections;
+
+  @Value("${keycloak-client.admin-pool.time-to-live:PT5M}")
+  private Duration connectionTimeToLive;
+
+  @Value("${keycloak-client.admin-pool.idle-timeout:PT30S}")
+  private Duration idleTimeout;
+
+  @Value("${keycloak-client.admin-pool.connect-timeout:PT2S}")
+  private Duration connectTimeout;
+
+  @Value("${keycloak-client.admin-pool.socket-timeout:PT10S}")
+  private Duration socketTimeout;
+
+  @Value("${keycloak-client.admin-pool.acquire-timeout:PT1S}")
+  private Duration acquireTimeout;
+
+  /** Client d'administration utilisé pour les lectures. */
+  @Bean
+  public Keycloak getKeycloakInstance(MeterRegistry meterRegistry) {
+    return buildAdminClient(meterRegistry, "keycloak-admin-read", readMaxConnections);
+  }
+
+  @Bean
+  public KeycloakWriteClient keycloakWriteClient(MeterRegistry meterRegistry) {
+    return new KeycloakWriteClient(
+        buildAdminClient(meterRegistry, "keycloak-admin-write", writeMaxConnections));
+  }
+
   @Bean
-  public Keycloak getKeycloakInstance() {
+  public String keycloakRealm() {
+    return realm;
+  }
+
+  /**
+   * Client d'administration sur un pool Apache dédié : durée de vie des connexions, éviction des connexions
+   * inactives, délai d'obtention d'une connexion borné et métriques du pool.
+   */
+  private Keycloak buildAdminClient(MeterRegistry meterRegistry, String poolName, int maxConnections) {
+    InstrumentedConnectionManager connectionManager =
+        new InstrumentedConnectionManager(meterRegistry, poolName, maxConnections, connectionTimeToLive);
+
+    CloseableHttpClient httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()))
+            .setSocketTimeout(Math.toIntExact(socketTimeout.toMillis()))
+            .setConnectionRequestTimeout(Math.toIntExact(acquireTimeout.toMillis()))
+            .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .disableCookieManagement()
+        .addInterceptorLast(new OutboundHeadersInterceptor())
+        .build();
+
     return KeycloakBuilder.builder()
         .serverUrl(url)
         .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
         .realm(realm)
         .clientId(clientId)
         .clientSecret(clientSecret)
-        .resteasyClient(new ResteasyClientBuilderImpl().connectionPoolSize(10).build())
+        .resteasyClient(new ResteasyClientBuilderImpl()
+            .httpEngine(new ApacheHttpClient43Engine(httpClient, true))
+            .build())
         .build();
   }
-
-  @Bean
-  public String keycloakRealm() {
-    return realm;
-  }
 }
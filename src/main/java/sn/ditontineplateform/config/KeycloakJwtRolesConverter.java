@@ -2,12 +2,10 @@ package sn.ditontineplateform.config;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Locale;
+import java.util.List;
 import java.util.Map;
 
 public class KeycloakJwtRolesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
@@ -17,9 +15,11 @@ public class KeycloakJwtRolesConverter implements Converter<Jwt, Collection<Gran
   private static final String CLAIM_ROLES = "roles";
 
   private final String kcClientId;
+  private final KeycloakAuthoritiesCache authoritiesCache;
 
-  public KeycloakJwtRolesConverter(String kcClientId) {
+  public KeycloakJwtRolesConverter(String kcClientId, KeycloakAuthoritiesCache authoritiesCache) {
     this.kcClientId = kcClientId;
+    this.authoritiesCache = authoritiesCache;
   }
 
   @Override
@@ -28,32 +28,18 @@ public class KeycloakJwtRolesConverter implements Converter<Jwt, Collection<Gran
     Map<String, Map<String, Collection<String>>> resourceAccess =
         jwt.getClaim(CLAIM_RESOURCE_ACCESS);
 
-    Collection<GrantedAuthority> grantedAuthorities = new ArrayList<>();
-
-    if (realmAccess != null && !realmAccess.isEmpty()) {
-      Collection<String> realmRole = realmAccess.get(CLAIM_ROLES);
-      if (realmRole != null && !realmRole.isEmpty()) {
-        realmRole.forEach(
-            r -> {
-              if (resourceAccess != null
-                  && !resourceAccess.isEmpty()
-                  && resourceAccess.containsKey(kcClientId)) {
-                resourceAccess
-                    .get(kcClientId)
-                    .get(CLAIM_ROLES)
-                    .forEach(
-                        resourceRole -> {
-                          String role =
-                              String.format("%s_%s", r, resourceRole).toUpperCase(Locale.ROOT);
-                          grantedAuthorities.add(new SimpleGrantedAuthority(role));
-                        });
-              } else {
-                grantedAuthorities.add(new SimpleGrantedAuthority(r));
-              }
-            });
-      }
+    if (realmAccess == null || realmAccess.isEmpty()) {
+      return List.of();
     }
 
-    return grantedAuthorities;
+    Collection<String> clientRoles = null;
+    if (resourceAccess != null
+        && !resourceAccess.isEmpty()
+        && resourceAccess.containsKey(kcClientId)) {
+      Collection<String> roles = resourceAccess.get(kcClientId).get(CLAIM_ROLES);
+      clientRoles = roles != null ? roles : List.of();
+    }
+
+    return authoritiesCache.authorities(realmAccess.get(CLAIM_ROLES), clientRoles);
   }
 }
@@ -0,0 +1,29 @@
+package sn.ditontineplateform.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Négociation d'un format binaire compact : un client qui envoie {@code Accept: application/cbor} reçoit le même
+ * contenu qu'en JSON, encodé en CBOR. Les requêtes {@code Content-Type: application/cbor} sont acceptées de la même
+ * façon.
+ * <p>
+ * Le convertisseur est exposé comme bean : {@code HttpMessageConverters} le place juste devant le convertisseur CBOR
+ * que Spring MVC enregistre par défaut (construit hors de la configuration Jackson de Boot), qui n'est donc plus
+ * sélectionné. Il reste après les convertisseurs JSON, si bien qu'une requête sans préférence
+ * ({@code Accept: *}{@code /*}) est servie en JSON.
+ */
+@Configuration
+public class MessageConvertersConfig {
+
+  /** Même configuration Jackson que le JSON (modules java.time, spring.jackson.*), fabrique CBOR. */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return new MappingJackson2CborHttpMessageConverter(
+        objectMapperBuilder.factory(new CBORFactory()).build());
+  }
+}
@@ -0,0 +1,57 @@
+package sn.ditontineplateform.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Migrations qui portent sur des tables créées par Hibernate ({@code ddl-auto: update}) : index des utilisateurs
+ * notamment. Flyway s'exécute avant Hibernate, si bien que sur une base neuve ces tables n'existent pas encore lors
+ * des migrations de {@code db/migration}. Les scripts de {@code db/post-schema} sont donc appliqués une fois
+ * l'EntityManagerFactory construite, avec leur propre historique ; une table absente fait échouer le démarrage au
+ * lieu d'ignorer l'index.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PostSchemaMigrations {
+
+  static final String LOCATION = "classpath:db/post-schema";
+  static final String HISTORY_TABLE = "flyway_post_schema_history";
+
+  private final DataSource dataSource;
+
+  @Value("${spring.flyway.enabled:true}")
+  private boolean enabled;
+
+  @Value("${spring.flyway.default-schema:ditontine_app}")
+  private String schema;
+
+  @PostConstruct
+  void migrate() {
+    if (!enabled) {
+      return;
+    }
+    MigrateResult result = Flyway.configure()
+        .dataSource(dataSource)
+        .schemas(schema)
+        .defaultSchema(schema)
+        .locations(LOCATION)
+        .table(HISTORY_TABLE)
+        // Le schéma contient déjà les tables : l'historique démarre avant V1 pour appliquer tous les scripts
+        .baselineOnMigrate(true)
+        .baselineVersion("0")
+        .load()
+        .migrate();
+    log.info("Migrations post-schéma : {} appliquée(s), version {}",
+        result.migrationsExecuted, result.targetSchemaVersion);
+  }
+}
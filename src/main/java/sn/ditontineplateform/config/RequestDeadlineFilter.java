@@ -0,0 +1,56 @@
+package sn.ditontineplateform.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sn.ditontineplateform.utils.RequestDeadline;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Attribue à chaque requête une échéance : le budget configuré, réduit par l'en-tête {@value #TIMEOUT_HEADER}
+ * (millisecondes) lorsque l'appelant en fournit un plus court.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+  static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+  @Value("${keycloak-client.resilience.request-budget:PT10S}")
+  private Duration requestBudget;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestDeadline.start(budget(request.getHeader(TIMEOUT_HEADER)));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestDeadline.clear();
+    }
+  }
+
+  private Duration budget(String header) {
+    if (header == null) {
+      return requestBudget;
+    }
+    try {
+      long millis = Long.parseLong(header.trim());
+      return millis > 0 && millis < requestBudget.toMillis() ? Duration.ofMillis(millis) : requestBudget;
+    } catch (NumberFormatException e) {
+      return requestBudget;
+    }
+  }
+}
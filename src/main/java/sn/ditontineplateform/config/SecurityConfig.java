@@ -1 +1 @@
-package sn.ditontineplateform.config;import lombok.extern.slf4j.Slf4j;import org.springframework.beans.factory.annotation.Value;import org.springframework.context.annotation.Bean;import org.springframework.context.annotation.Configuration;import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;import org.springframework.security.config.annotation.web.builders.HttpSecurity;import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;import org.springframework.security.config.core.GrantedAuthorityDefaults;import org.springframework.security.oauth2.jwt.JwtDecoder;import org.springframework.security.oauth2.jwt.JwtDecoders;import org.springframework.security.oauth2.server.resource.authentication.DelegatingJwtGrantedAuthoritiesConverter;import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;import org.springframework.security.web.SecurityFilterChain;import org.springframework.security.web.util.matcher.AntPathRequestMatcher;import org.springframework.web.cors.CorsConfiguration;import org.springframework.web.cors.CorsConfigurationSource;import org.springframework.web.cors.UrlBasedCorsConfigurationSource;import java.util.Arrays;import java.util.List;import static org.springframework.security.config.Customizer.withDefaults;@Configuration@EnableWebSecurity@EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)@Slf4jpublic class SecurityConfig {  private static final String[] WHITELIST = {    "/api-docs/**",    "/v1/auth/login",    "/v1/auth/refresh-token",    "/v1/auth/forgot-password",    "/v1/email/send",    "/v1/users",    "/swagger-ui/**",    "/swagger-ui.html",    "/actuator/prometheus",    "/actuator/health/**",    "/ws/**"  };  @Value("${keycloak-client.id}")  private String kcClientId;  @Value("${keycloak-client.issuer-url}")  private String tokenIssuerUrl;  @Value("${fayda-app.endpoints.frontend}")  private String frontEndUrl;  @Value("${spring.security.enabled}")  private boolean securityEnabled;  @Bean  public SecurityFilterChain securityFilterChain(      HttpSecurity http, CustomAuthenticationEntryPoint entryPoint, CustomAccessDenied accessDenied)      throws Exception {    if (securityEnabled) {      DelegatingJwtGrantedAuthoritiesConverter authoritiesConverter =          new DelegatingJwtGrantedAuthoritiesConverter(              new JwtGrantedAuthoritiesConverter(), new KeycloakJwtRolesConverter(kcClientId));      http.httpBasic(withDefaults())          .formLogin(withDefaults())          .csrf(AbstractHttpConfigurer::disable)          .cors(cors -> cors.configurationSource(corsConfigurationSource()))          .exceptionHandling(              exceptionHandling ->                  exceptionHandling                      .authenticationEntryPoint(entryPoint)                      .accessDeniedHandler(accessDenied))          .authorizeHttpRequests(              authorize -> {                authorize                    .requestMatchers(                        request -> {                          for (String pattern : WHITELIST) {                            if (new AntPathRequestMatcher(pattern).matches(request)) {                              return true;                            }                          }                          return false;                        })                    .permitAll();                authorize.anyRequest().authenticated();              })          .oauth2ResourceServer(              oauth2 ->                  oauth2.jwt(                      jwt ->                          jwt.jwtAuthenticationConverter(                              token ->                                  new JwtAuthenticationToken(                                      token, authoritiesConverter.convert(token)))));    } else {      http.authorizeHttpRequests(authorizeRequests -> authorizeRequests.anyRequest().permitAll())          .httpBasic(withDefaults())          .formLogin(withDefaults())          .csrf(AbstractHttpConfigurer::disable);    }    return http.build();  }  @Bean  public CorsConfigurationSource corsConfigurationSource() {    List<String> allowedOrigins = Arrays.stream(frontEndUrl.split(",")).map(String::trim).toList();    log.info("allowedOrigins {}", allowedOrigins);    CorsConfiguration configuration = new CorsConfiguration();    configuration.setAllowedOriginPatterns(allowedOrigins);    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));    configuration.setAllowedHeaders(        List.of("Authorization", "Cache-Control", "Content-Type", "X-JWT-Assertion"));    configuration.setAllowCredentials(true);    UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();    source.registerCorsConfiguration("/**", configuration);    return source;  }  @Bean  public JwtDecoder jwtDecoder() {    log.info("tokenIssuerUrl {}", tokenIssuerUrl);    return JwtDecoders.fromIssuerLocation(tokenIssuerUrl);  }  @Bean  GrantedAuthorityDefaults grantedAuthorityDefaults() {    return new GrantedAuthorityDefaults("");  }}
\ No newline at end of file
+package sn.ditontineplateform.config;import com.nimbusds.jose.JWSAlgorithm;import com.nimbusds.jose.jwk.source.JWKSource;import com.nimbusds.jose.jwk.source.JWKSourceBuilder;import com.nimbusds.jose.proc.JWSVerificationKeySelector;import com.nimbusds.jose.proc.SecurityContext;import com.nimbusds.jose.util.DefaultResourceRetriever;import com.nimbusds.jwt.proc.DefaultJWTProcessor;import lombok.extern.slf4j.Slf4j;import org.springframework.beans.factory.annotation.Value;import org.springframework.context.annotation.Bean;import org.springframework.context.annotation.Configuration;import org.springframework.http.HttpHeaders;import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;import org.springframework.security.config.annotation.web.builders.HttpSecurity;import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;import org.springframework.security.config.core.GrantedAuthorityDefaults;import org.springframework.security.oauth2.jwt.JwtDecoder;import org.springframework.security.oauth2.jwt.JwtValidators;import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;import org.springframework.security.oauth2.server.resource.authentication.DelegatingJwtGrantedAuthoritiesConverter;import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;import org.springframework.security.web.SecurityFilterChain;import org.springframework.security.web.util.matcher.AntPathRequestMatcher;import org.springframework.web.cors.CorsConfiguration;import org.springframework.web.cors.CorsConfigurationSource;import org.springframework.web.cors.UrlBasedCorsConfigurationSource;import java.net.MalformedURLException;import java.net.URI;import java.net.URL;import java.time.Duration;import java.util.Arrays;import java.util.List;import static org.springframework.security.config.Customizer.withDefaults;@Configuration@EnableWebSecurity@EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)@Slf4jpublic class SecurityConfig {  private static final String[] WHITELIST = {    "/api-docs/**",    "/v1/auth/login",    "/v1/auth/refresh-token",    "/v1/auth/forgot-password",    "/v1/auth/reset-password",    "/v1/email/send",    "/v1/users",    "/swagger-ui/**",    "/swagger-ui.html",    "/actuator/prometheus",    "/actuator/health/**",    "/ws/**"  };  @Value("${keycloak-client.id}")  private String kcClientId;  @Value("${keycloak-client.issuer-url}")  private String tokenIssuerUrl;  @Value("${fayda-app.endpoints.frontend}")  private String frontEndUrl;  @Value("${spring.security.enabled}")  private boolean securityEnabled;  @Value("${keycloak-client.jwks.ttl:PT15M}")  private Duration jwksTtl;  @Value("${keycloak-client.jwks.refresh-ahead:PT1M}")  private Duration jwksRefreshAhead;  @Value("${keycloak-client.jwks.min-refresh-interval:PT30S}")  private Duration jwksMinRefreshInterval;  @Value("${keycloak-client.jwks.outage-ttl:PT6H}")  private Duration jwksOutageTtl;  @Value("${keycloak-client.jwks.connect-timeout:PT2S}")  private Duration jwksConnectTimeout;  @Value("${keycloak-client.jwks.read-timeout:PT2S}")  private Duration jwksReadTimeout;  @Bean  public SecurityFilterChain securityFilterChain(      HttpSecurity http,      CustomAuthenticationEntryPoint entryPoint,      CustomAccessDenied accessDenied,      KeycloakAuthoritiesCache authoritiesCache)      throws Exception {    if (securityEnabled) {      DelegatingJwtGrantedAuthoritiesConverter authoritiesConverter =          new DelegatingJwtGrantedAuthoritiesConverter(              new JwtGrantedAuthoritiesConverter(), new KeycloakJwtRolesConverter(kcClientId, authoritiesCache));      http.httpBasic(withDefaults())          .formLogin(withDefaults())          .csrf(AbstractHttpConfigurer::disable)          .cors(cors -> cors.configurationSource(corsConfigurationSource()))          .exceptionHandling(              exceptionHandling ->                  exceptionHandling                      .authenticationEntryPoint(entryPoint)                      .accessDeniedHandler(accessDenied))          .authorizeHttpRequests(              authorize -> {                authorize                    .requestMatchers(                        request -> {                          for (String pattern : WHITELIST) {                            if (new AntPathRequestMatcher(pattern).matches(request)) {                              return true;                            }                          }                          return false;                        })                    .permitAll();                authorize.anyRequest().authenticated();              })          .oauth2ResourceServer(              oauth2 ->                  oauth2.jwt(                      jwt ->                          jwt.jwtAuthenticationConverter(                              token ->                                  new JwtAuthenticationToken(                                      token, authoritiesConverter.convert(token)))));    } else {      http.authorizeHttpRequests(authorizeRequests -> authorizeRequests.anyRequest().permitAll())          .httpBasic(withDefaults())          .formLogin(withDefaults())          .csrf(AbstractHttpConfigurer::disable);    }    return http.build();  }  @Bean  public CorsConfigurationSource corsConfigurationSource() {    List<String> allowedOrigins = Arrays.stream(frontEndUrl.split(",")).map(String::trim).toList();    log.info("allowedOrigins {}", allowedOrigins);    CorsConfiguration configuration = new CorsConfiguration();    configuration.setAllowedOriginPatterns(allowedOrigins);    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));    configuration.setAllowedHeaders(        List.of(            "Authorization",            "Cache-Control",            "Content-Type",            "X-JWT-Assertion",            HttpHeaders.IF_MATCH,            HttpHeaders.IF_NONE_MATCH));    // Lecture de l'ETag par le front pour les requêtes conditionnelles (If-None-Match, If-Match)    configuration.setExposedHeaders(List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED));    configuration.setAllowCredentials(true);    UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();    source.registerCorsConfiguration("/**", configuration);    return source;  }  /**   * Décodeur JWT vérifiant les tokens localement. Les clés publiques du realm sont mises en cache et   * rafraîchies en tâche de fond avant expiration ; un {@code kid} inconnu déclenche un rechargement   * (limité en fréquence) et, si Keycloak est injoignable, les dernières clés connues restent servies   * pendant {@code keycloak-client.jwks.outage-ttl}.   */  @Bean  public JwtDecoder jwtDecoder() throws MalformedURLException {    log.info("tokenIssuerUrl {}", tokenIssuerUrl);    URL jwkSetUrl = URI.create(tokenIssuerUrl + "/protocol/openid-connect/certs").toURL();    JWKSource<SecurityContext> jwkSource =        JWKSourceBuilder.create(                jwkSetUrl,                new DefaultResourceRetriever(                    Math.toIntExact(jwksConnectTimeout.toMillis()),                    Math.toIntExact(jwksReadTimeout.toMillis()),                    JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT))            .cache(jwksTtl.toMillis(), jwksReadTimeout.toMillis())            .refreshAheadCache(jwksRefreshAhead.toMillis(), true)            .rateLimited(jwksMinRefreshInterval.toMillis())            .retrying(true)            .outageTolerant(jwksOutageTtl.toMillis())            .build();    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();    jwtProcessor.setJWSKeySelector(        new JWSVerificationKeySelector<>(JWSAlgorithm.Family.RSA, jwkSource));    // Les claims (exp, nbf, iss) sont validés par Spring ci-dessous.    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});    NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);    jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(tokenIssuerUrl));    return jwtDecoder;  }  @Bean  GrantedAuthorityDefaults grantedAuthorityDefaults() {    return new GrantedAuthorityDefaults("");  }}
\ No newline at end of file
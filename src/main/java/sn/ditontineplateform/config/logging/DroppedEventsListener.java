@@ -0,0 +1,32 @@
+package sn.ditontineplateform.config.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import net.logstash.logback.appender.listener.AppenderListener;
+
+/**
+ * Compte les événements qu'un appender asynchrone n'a pas pu mettre dans son tampon. Le tampon circulaire ne bloque
+ * jamais le thread appelant : un événement qui ne trouve pas de place est abandonné et compté ici.
+ */
+public class DroppedEventsListener implements AppenderListener<ILoggingEvent> {
+
+  @Override
+  public void appenderStarted(Appender<ILoggingEvent> appender) {
+    LoggingStats.droppedCounter(appender.getName());
+  }
+
+  @Override
+  public void appenderStopped(Appender<ILoggingEvent> appender) {
+    // rien à faire
+  }
+
+  @Override
+  public void eventAppended(Appender<ILoggingEvent> appender, ILoggingEvent event, long durationInNanos) {
+    // rien à faire : seuls les abandons sont comptés
+  }
+
+  @Override
+  public void eventAppendFailed(Appender<ILoggingEvent> appender, ILoggingEvent event, Throwable reason) {
+    LoggingStats.droppedCounter(appender.getName()).increment();
+  }
+}
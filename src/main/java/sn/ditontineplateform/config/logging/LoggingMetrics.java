@@ -0,0 +1,34 @@
+package sn.ditontineplateform.config.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expose les compteurs du pipeline de logs ({@link LoggingStats}) : {@code logging.events.dropped} par appender et
+ * {@code logging.events.sampled} par règle d'échantillonnage.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoggingMetrics {
+
+  private final MeterRegistry meterRegistry;
+
+  @PostConstruct
+  void bind() {
+    LoggingStats.dropped().forEach((appender, counter) ->
+        FunctionCounter.builder("logging.events.dropped", counter, LongAdder::sum)
+            .description("Événements de log abandonnés faute de place dans le tampon asynchrone")
+            .tag("appender", appender)
+            .register(meterRegistry));
+    LoggingStats.sampledOut().forEach((rule, counter) ->
+        FunctionCounter.builder("logging.events.sampled", counter, LongAdder::sum)
+            .description("Événements de log écartés par échantillonnage")
+            .tag("rule", rule)
+            .register(meterRegistry));
+  }
+}
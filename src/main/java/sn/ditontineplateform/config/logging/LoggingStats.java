@@ -0,0 +1,36 @@
+package sn.ditontineplateform.config.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs du pipeline de logs. Logback est configuré avant le contexte Spring : les composants Logback
+ * ({@link DroppedEventsListener}, {@link SamplingTurboFilter}) comptent ici et {@link LoggingMetrics} expose ces
+ * compteurs à Micrometer une fois le registre disponible.
+ */
+public final class LoggingStats {
+
+  private static final Map<String, LongAdder> DROPPED = new ConcurrentHashMap<>();
+  private static final Map<String, LongAdder> SAMPLED_OUT = new ConcurrentHashMap<>();
+
+  private LoggingStats() {}
+
+  /** Événements perdus par appender asynchrone (tampon plein ou appender arrêté). */
+  public static Map<String, LongAdder> dropped() {
+    return DROPPED;
+  }
+
+  /** Événements écartés par échantillonnage, par règle (préfixe de logger). */
+  public static Map<String, LongAdder> sampledOut() {
+    return SAMPLED_OUT;
+  }
+
+  static LongAdder droppedCounter(String appender) {
+    return DROPPED.computeIfAbsent(appender, name -> new LongAdder());
+  }
+
+  static LongAdder sampledOutCounter(String rule) {
+    return SAMPLED_OUT.computeIfAbsent(rule, name -> new LongAdder());
+  }
+}
@@ -0,0 +1,83 @@
+package sn.ditontineplateform.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Échantillonnage des logs à fort volume, par préfixe de logger. Les règles ont la forme
+ * {@code "sn.ditontineplateform.domaine.controller=0.1, org.hibernate.SQL=0.01"} : seule la fraction indiquée des
+ * événements INFO et en dessous est conservée. WARN et ERROR ne sont jamais échantillonnés.
+ * <p>
+ * Le filtre intervient avant la construction de l'événement : un message écarté n'est ni formaté ni rendu.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private static final String NO_RULE = "";
+
+  private final Map<String, Double> rates = new LinkedHashMap<>();
+  private final Map<String, String> ruleByLogger = new ConcurrentHashMap<>();
+
+  /** Règles {@code prefixe=taux} séparées par des virgules ; une valeur vide désactive l'échantillonnage. */
+  public void setRules(String rules) {
+    rates.clear();
+    ruleByLogger.clear();
+    if (rules == null || rules.isBlank()) {
+      return;
+    }
+    for (String rule : rules.split(",")) {
+      String[] parts = rule.split("=");
+      if (parts.length != 2) {
+        addWarn("Règle d'échantillonnage ignorée : " + rule);
+        continue;
+      }
+      try {
+        double rate = Double.parseDouble(parts[1].trim());
+        rates.put(parts[0].trim(), Math.clamp(rate, 0.0, 1.0));
+      } catch (NumberFormatException e) {
+        addWarn("Taux d'échantillonnage invalide : " + rule);
+      }
+    }
+  }
+
+  @Override
+  public void start() {
+    rates.keySet().forEach(LoggingStats::sampledOutCounter);
+    super.start();
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+      Throwable t) {
+    if (!isStarted() || rates.isEmpty() || level == null || level.isGreaterOrEqual(Level.WARN)) {
+      return FilterReply.NEUTRAL;
+    }
+    // Les événements sous le niveau du logger sont écartés plus loin ; ils ne comptent pas comme échantillonnés
+    if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    String rule = ruleByLogger.computeIfAbsent(logger.getName(), this::matchingRule);
+    if (rule.isEmpty() || ThreadLocalRandom.current().nextDouble() < rates.get(rule)) {
+      return FilterReply.NEUTRAL;
+    }
+    LoggingStats.sampledOutCounter(rule).increment();
+    return FilterReply.DENY;
+  }
+
+  /** Règle au préfixe le plus long couvrant le logger. */
+  private String matchingRule(String loggerName) {
+    Optional<String> rule = rates.keySet().stream()
+        .filter(prefix -> loggerName.equals(prefix) || loggerName.startsWith(prefix + "."))
+        .max(Comparator.comparingInt(String::length));
+    return rule.orElse(NO_RULE);
+  }
+}
@@ -0,0 +1,45 @@
+package sn.ditontineplateform.config.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spans client autour des accès base de données et des envois de mails.
+ * <p>
+ * Les accès base sont observés à la frontière repositories Spring Data / {@code NamedParameterJdbcOperations},
+ * qui couvre tous les chemins SQL de l'application ; les appels Keycloak sont observés par {@code KeycloakGateway}.
+ * Les noms de span restent à faible cardinalité (type et méthode, jamais la requête ni ses paramètres).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ClientObservationAspect {
+
+  private final ObservationRegistry observationRegistry;
+
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+      + " || execution(* org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations+.*(..))")
+  public Object observeDataAccess(ProceedingJoinPoint joinPoint) throws Throwable {
+    return observe("db.client", "postgresql", joinPoint);
+  }
+
+  @Around("execution(* org.springframework.mail.MailSender+.send(..))")
+  public Object observeMail(ProceedingJoinPoint joinPoint) throws Throwable {
+    return observe("mail.client", "smtp", joinPoint);
+  }
+
+  // observeChecked démarre l'observation, ouvre son scope, enregistre l'erreur éventuelle puis l'arrête
+  private Object observe(String name, String remoteService, ProceedingJoinPoint joinPoint) throws Throwable {
+    return Observation.createNotStarted(name, observationRegistry)
+        .contextualName(joinPoint.getSignature().getDeclaringType().getSimpleName()
+            + "." + joinPoint.getSignature().getName())
+        .lowCardinalityKeyValue("remote.service", remoteService)
+        .lowCardinalityKeyValue("method", joinPoint.getSignature().getName())
+        .<Object, Throwable>observeChecked(joinPoint::proceed);
+  }
+}
@@ -0,0 +1,214 @@
+package sn.ditontineplateform.domaine.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
+import sn.ditontineplateform.domaine.entity.User;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache en mémoire des profils utilisateurs, indexé par identifiant, identifiant Keycloak et email.
+ * <p>
+ * Les entrées sont des {@link UserSummaryView} immuables, jamais des entités : rien n'est partagé avec un contexte de
+ * persistance ni chargé paresseusement après coup. Elles sont stockées par identifiant ; les deux autres clés ne
+ * mènent qu'à l'identifiant et sont vérifiées à chaque lecture, de sorte qu'un index secondaire périmé (email
+ * modifié, entrée évincée) provoque un simple défaut de cache.
+ * <p>
+ * Les écritures appellent {@link #evict(User)} : l'invalidation est immédiate puis répétée après le commit, et
+ * chacune incrémente une génération. Un chargement n'est mis en cache que si aucune invalidation n'a eu lieu depuis
+ * son début ; sinon il est servi à l'appelant sans être conservé. Une lecture commencée avant le commit ne peut donc
+ * pas remettre l'ancienne version en cache après l'éviction.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${user-cache.ttl:PT10M}")
+    private Duration ttl;
+
+    @Value("${user-cache.max-size:10000}")
+    private long maxSize;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<UUID, Entry> byId;
+    private Cache<String, UUID> byExternalId;
+    private Cache<String, UUID> byEmail;
+    private Timer entryAge;
+    private Counter discardedLoads;
+
+    private record Entry(UserSummaryView user, long loadedAtNanos) {
+    }
+
+    @PostConstruct
+    void init () {
+        this.byExternalId = index();
+        this.byEmail = index();
+        this.byId = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .removalListener((UUID id, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && cause.wasEvicted()) {
+                        dropIndexes(entry.user());
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, CACHE_NAME);
+        this.entryAge = Timer.builder("users.cache.entry.age")
+                .description("Âge des profils servis depuis le cache, borné par user-cache.ttl")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.discardedLoads = Counter.builder("users.cache.discarded_loads")
+                .description("Profils chargés pendant une invalidation concurrente, servis sans être mis en cache")
+                .register(meterRegistry);
+    }
+
+    private Cache<String, UUID> index () {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<UserSummaryView> getById (UUID id, Supplier<Optional<UserSummaryView>> loader) {
+        Entry entry = byId.getIfPresent(id);
+        if (entry != null) {
+            return hit(entry);
+        }
+        return load(loader);
+    }
+
+    public Optional<UserSummaryView> getByExternalId (String externalId,
+                                                      Supplier<Optional<UserSummaryView>> loader) {
+        return lookup(byExternalId, externalId, user -> Objects.equals(externalId, user.getKeycloakId()), loader);
+    }
+
+    public Optional<UserSummaryView> getByEmail (String email, Supplier<Optional<UserSummaryView>> loader) {
+        String key = normalize(email);
+        return lookup(byEmail, key, user -> Objects.equals(key, normalize(user.getEmail())), loader);
+    }
+
+    /**
+     * Invalide toutes les clés connues de l'utilisateur, maintenant et, dans une transaction, après le commit.
+     */
+    public void evict (User user) {
+        if (user == null) {
+            return;
+        }
+        UUID id = user.getId();
+        String externalId = user.getKeycloakId();
+        String email = normalize(user.getEmail());
+        invalidate(id, externalId, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion (int status) {
+                    invalidate(id, externalId, email);
+                }
+            });
+        }
+    }
+
+    private Optional<UserSummaryView> lookup (Cache<String, UUID> index, String key,
+                                              Predicate<UserSummaryView> matches,
+                                              Supplier<Optional<UserSummaryView>> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+        UUID id = index.getIfPresent(key);
+        if (id != null) {
+            Entry entry = byId.getIfPresent(id);
+            if (entry != null && matches.test(entry.user())) {
+                return hit(entry);
+            }
+            index.invalidate(key);
+        }
+        return load(loader);
+    }
+
+    private Optional<UserSummaryView> hit (Entry entry) {
+        entryAge.record(Duration.ofNanos(System.nanoTime() - entry.loadedAtNanos()));
+        return Optional.of(entry.user());
+    }
+
+    private Optional<UserSummaryView> load (Supplier<Optional<UserSummaryView>> loader) {
+        long started = generation.get();
+        Optional<UserSummaryView> loaded = loader.get();
+        loaded.filter(user -> user.getId() != null).ifPresent(user -> put(user, started));
+        return loaded;
+    }
+
+    private void put (UserSummaryView user, long started) {
+        if (generation.get() != started) {
+            discardedLoads.increment();
+            return;
+        }
+        Entry entry = new Entry(user, System.nanoTime());
+        byId.put(user.getId(), entry);
+        if (user.getKeycloakId() != null) {
+            byExternalId.put(user.getKeycloakId(), user.getId());
+        }
+        String email = normalize(user.getEmail());
+        if (email != null) {
+            byEmail.put(email, user.getId());
+        }
+        // Une invalidation survenue pendant l'écriture a pu passer avant nos put : l'entrée est retirée
+        if (generation.get() != started) {
+            byId.asMap().remove(user.getId(), entry);
+            discardedLoads.increment();
+        }
+    }
+
+    private void invalidate (UUID id, String externalId, String email) {
+        generation.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (externalId != null) {
+            byExternalId.invalidate(externalId);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    private void dropIndexes (UserSummaryView user) {
+        if (user.getKeycloakId() != null) {
+            byExternalId.invalidate(user.getKeycloakId());
+        }
+        String email = normalize(user.getEmail());
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    private static String normalize (String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
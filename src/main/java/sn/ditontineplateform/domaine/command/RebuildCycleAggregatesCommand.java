@@ -0,0 +1,43 @@
+package sn.ditontineplateform.domaine.command;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sn.ditontineplateform.domaine.service.interfaces.CycleAggregateService;
+
+import java.util.UUID;
+
+/**
+ * Reconstruction des agrégats de cycle au démarrage, pour reprendre après un incident (import SQL direct, écart
+ * constaté, ...).
+ * <p>
+ * {@code --cycle-aggregates.rebuild=all} (ou {@code CYCLE_AGGREGATES_REBUILD=all}) recalcule toutes les tontines ;
+ * un identifiant de tontine limite la reconstruction à celle-ci.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cycle-aggregates.rebuild")
+public class RebuildCycleAggregatesCommand implements ApplicationRunner {
+
+    private final CycleAggregateService cycleAggregateService;
+
+    @Value("${cycle-aggregates.rebuild}")
+    private String target;
+
+    @Override
+    public void run (ApplicationArguments args) {
+        if (target.isBlank()) {
+            return;
+        }
+        if ("all".equalsIgnoreCase(target.trim())) {
+            cycleAggregateService.reconstruireTout();
+        } else {
+            cycleAggregateService.reconstruire(UUID.fromString(target.trim()));
+        }
+    }
+}
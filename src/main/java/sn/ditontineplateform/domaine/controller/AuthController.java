@@ -0,0 +1,65 @@
+package sn.ditontineplateform.domaine.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sn.ditontineplateform.exception.CustomException;
+import sn.ditontineplateform.response.CustomResponse;
+import sn.ditontineplateform.security.dto.PasswordResetRequest;
+import sn.ditontineplateform.security.service.interfaces.AuthService;
+import sn.ditontineplateform.utils.Constants;
+import sn.ditontineplateform.utils.TraceIds;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/auth")
+@Tag(
+        name = "Authentification",
+        description = "Gestion des accès et des mots de passe"
+)
+public class AuthController {
+
+    private final AuthService authService;
+
+    /**
+     * Confirmer la réinitialisation du mot de passe. Le token reçu par email est passé en paramètre {@code token} ;
+     * sans ce paramètre, le mot de passe changé est celui de l'utilisateur du JWT de la requête.
+     */
+    @Operation(
+            summary = "Réinitialiser le mot de passe",
+            description = "Applique le nouveau mot de passe à l'aide du token à usage unique reçu par email."
+    )
+    @ApiResponse(responseCode = "200", description = "Mot de passe réinitialisé")
+    @ApiResponse(responseCode = "401", description = "Token invalide, expiré ou déjà utilisé")
+    @PostMapping("/reset-password")
+    public ResponseEntity<CustomResponse> confirmPasswordReset (
+            @RequestBody PasswordResetRequest body,
+            HttpServletRequest request
+    ) throws CustomException {
+        authService.confirmPasswordReset(request, body.getNewPassword());
+        log.info("[confirmPasswordReset] mot de passe réinitialisé");
+
+        return ResponseEntity.ok(
+                CustomResponse.builder()
+                        .statusCodeValue(HttpStatus.OK.value())
+                        .status(Constants.Message.SUCCESS_BODY)
+                        .code("PASSWORD_RESET")
+                        .message("Mot de passe réinitialisé avec succès")
+                        .developerMessage("Le token de réinitialisation a été consommé")
+                        .timestamp(LocalDateTime.now())
+                        .traceId(TraceIds.current())
+                        .build());
+    }
+}
@@ -0,0 +1,96 @@
+package sn.ditontineplateform.domaine.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import sn.ditontineplateform.domaine.dto.CycleAggregateDto;
+import sn.ditontineplateform.domaine.service.interfaces.CycleAggregateService;
+import sn.ditontineplateform.response.CustomResponse;
+import sn.ditontineplateform.utils.Constants;
+import sn.ditontineplateform.utils.TraceIds;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/tontines/{tontineId}/cycles")
+@Tag(
+        name = "Cycles de tontine",
+        description = "Suivi des cotisations par cycle"
+)
+public class TontineCycleController {
+
+    private final CycleAggregateService cycleAggregateService;
+
+    /** Agrégats de cotisation de tous les cycles d'une tontine. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Agrégats des cycles",
+            description = "Montants attendus, collectés, pénalités, paiements et retards de chaque cycle."
+    )
+    @ApiResponse(responseCode = "200", description = "Agrégats retournés avec succès")
+    @GetMapping
+    public ResponseEntity<CustomResponse> getAggregats (@PathVariable UUID tontineId) {
+        List<CycleAggregateDto> aggregats = cycleAggregateService.getAggregats(tontineId);
+        return ResponseEntity.ok(
+                CustomResponse.builder()
+                        .statusCodeValue(HttpStatus.OK.value())
+                        .status(Constants.Message.SUCCESS_BODY)
+                        .code("CYCLE_AGGREGATES_RETRIEVED")
+                        .message("Suivi des cycles récupéré avec succès")
+                        .developerMessage("Agrégats lus depuis tontine_cycle_aggregates")
+                        .data(aggregats)
+                        .timestamp(LocalDateTime.now())
+                        .traceId(TraceIds.current())
+                        .build());
+    }
+
+    /** Agrégat de cotisation d'un cycle. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Agrégat d'un cycle",
+            description = "Montants attendus, collectés, pénalités, paiements et retards d'un cycle."
+    )
+    @ApiResponse(responseCode = "200", description = "Agrégat retourné avec succès")
+    @ApiResponse(responseCode = "404", description = "Aucune cotisation pour ce cycle")
+    @GetMapping("/{numeroCycle}")
+    public ResponseEntity<CustomResponse> getAggregat (@PathVariable UUID tontineId, @PathVariable int numeroCycle) {
+        Optional<CycleAggregateDto> aggregat = cycleAggregateService.getAggregat(tontineId, numeroCycle);
+
+        if (aggregat.isEmpty()) {
+            return ResponseEntity.ok(
+                    CustomResponse.builder()
+                            .statusCodeValue(HttpStatus.NOT_FOUND.value())
+                            .status(Constants.Message.NOT_FOUND_BODY)
+                            .code("CYCLE_NOT_FOUND")
+                            .message("Cycle introuvable")
+                            .developerMessage("Aucune cotisation enregistrée pour ce cycle de la tontine")
+                            .timestamp(LocalDateTime.now())
+                            .traceId(TraceIds.current())
+                            .build());
+        }
+
+        return ResponseEntity.ok(
+                CustomResponse.builder()
+                        .statusCodeValue(HttpStatus.OK.value())
+                        .status(Constants.Message.SUCCESS_BODY)
+                        .code("CYCLE_AGGREGATE_RETRIEVED")
+                        .message("Suivi du cycle récupéré avec succès")
+                        .developerMessage("Agrégat lu depuis tontine_cycle_aggregates")
+                        .data(aggregat.get())
+                        .timestamp(LocalDateTime.now())
+                        .traceId(TraceIds.current())
+                        .build());
+    }
+}
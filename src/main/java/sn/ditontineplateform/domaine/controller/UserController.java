@@ -9,7 +9,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,21 +20,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import sn.ditontineplateform.response.CustomResponse;
 import sn.ditontineplateform.security.service.interfaces.AuthService;
+import sn.ditontineplateform.domaine.dto.CursorPageDto;
+import sn.ditontineplateform.domaine.dto.UserBatchReportDto;
+import sn.ditontineplateform.domaine.dto.UserCursor;
 import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserImportReportDto;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
 import sn.ditontineplateform.domaine.entity.User;
 import sn.ditontineplateform.domaine.mapper.UserMapper;
+import sn.ditontineplateform.domaine.service.interfaces.UserProvisioningService;
 import sn.ditontineplateform.domaine.service.interfaces.UserService;
 import sn.ditontineplateform.utils.Constants;
+import sn.ditontineplateform.utils.EntityTags;
+import sn.ditontineplateform.utils.TraceIds;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -45,18 +63,24 @@ import java.util.UUID;
 )
 public class UserController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final UserService userService;
     private final UserMapper userMapper;
     private final AuthService authService;
+    private final UserProvisioningService userProvisioningService;
 
     public UserController (
             UserService userService,
             UserMapper userMapper,
-            AuthService authService
+            AuthService authService,
+            UserProvisioningService userProvisioningService
     ) {
         this.userService = userService;
         this.userMapper = userMapper;
         this.authService = authService;
+        this.userProvisioningService = userProvisioningService;
     }
 
     /** Lister les utilisateurs avec pagination. */
@@ -69,26 +93,16 @@ public class UserController {
     @GetMapping
     public ResponseEntity<CustomResponse> getAllUsers (
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            HttpServletRequest request
+            @RequestParam(defaultValue = "10") int size
     ) {
-        log.info("request : {} ", request);
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userService.getAllUsers(pageable);
-        Page<UserDto> userDTOs =
-                users.map(
-                        user -> {
-                            UserDto dto = userMapper.toDto(user);
-                            if (user.getExternalId() != null) {
-                                List<String> roles =
-                                        authService.getUserRolesByKeycloakId(user.getExternalId());
-                                dto.setRoles(roles);
-                            }
-                            return dto;
-                        });
-
-        log.info("******************getAllUsersController****************");
-        log.info("userDTOs [getAllUsers] : {}", userDTOs);
+        Page<UserSummaryView> users = userService.getUserSummaries(pageable);
+        Map<String, List<String>> rolesByExternalId =
+                authService.getUserRolesByKeycloakIds(
+                        users.stream().map(UserSummaryView::getKeycloakId).filter(Objects::nonNull).toList());
+        Page<UserDto> userDTOs = users.map(user -> toDto(user, rolesByExternalId));
+
+        log.debug("[getAllUsers] {} utilisateurs renvoyés (page {})", userDTOs.getNumberOfElements(), page);
         return ResponseEntity.ok(
                 CustomResponse.builder()
                         .statusCodeValue(HttpStatus.OK.value())
@@ -98,7 +112,77 @@ public class UserController {
                         .developerMessage("La liste des utilisateurs paginées a reussie avec succés")
                         .data(userDTOs)
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
+                        .build());
+    }
+
+    /** Lister les utilisateurs actifs par curseur, sans calcul du total. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Lister les utilisateurs par curseur",
+            description = "Retourne une tranche d'utilisateurs actifs et le curseur de la tranche suivante."
+    )
+    @ApiResponse(responseCode = "200", description = "Liste retournée avec succès")
+    @ApiResponse(responseCode = "400", description = "Curseur invalide")
+    @GetMapping("/cursor")
+    public ResponseEntity<CustomResponse> getUsersByCursor (
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        Slice<UserSummaryView> users = userService.getActiveUsersAfter(cursor, pageSize);
+        Map<String, List<String>> rolesByExternalId =
+                authService.getUserRolesByKeycloakIds(
+                        users.stream().map(UserSummaryView::getKeycloakId).filter(Objects::nonNull).toList());
+        List<UserDto> userDTOs = users.stream().map(user -> toDto(user, rolesByExternalId)).toList();
+        String nextCursor = users.hasNext() && users.hasContent()
+                ? UserCursor.of(users.getContent().getLast()).encode()
+                : null;
+
+        return ResponseEntity.ok(
+                CustomResponse.builder()
+                        .statusCodeValue(HttpStatus.OK.value())
+                        .status(Constants.Message.SUCCESS_BODY)
+                        .code("USERS_RETRIEVED")
+                        .message("Liste des utilisateurs récupérée avec succès")
+                        .developerMessage("La liste des utilisateurs par curseur a reussie avec succés")
+                        .data(new CursorPageDto<>(userDTOs, pageSize, users.hasNext(), nextCursor))
+                        .timestamp(LocalDateTime.now())
+                        .traceId(TraceIds.current())
+                        .build());
+    }
+
+    /** Rechercher des utilisateurs par nom, email ou téléphone. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Rechercher des utilisateurs",
+            description = "Recherche approchée par fragment de nom, d'email ou de téléphone, classée par pertinence. "
+                    + "Le mode prefix cherche en début de champ, le mode infix n'importe où dans le champ."
+    )
+    @ApiResponse(responseCode = "200", description = "Résultats retournés avec succès")
+    @ApiResponse(responseCode = "400", description = "Recherche trop courte ou mode inconnu")
+    @GetMapping("/search")
+    public ResponseEntity<CustomResponse> searchUsers (
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "prefix") String mode,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        List<UserSummaryView> users = userService.searchUsers(query, mode, Math.clamp(limit, 1, MAX_SEARCH_RESULTS));
+        Map<String, List<String>> rolesByExternalId =
+                authService.getUserRolesByKeycloakIds(
+                        users.stream().map(UserSummaryView::getKeycloakId).filter(Objects::nonNull).toList());
+        List<UserDto> userDTOs = users.stream().map(user -> toDto(user, rolesByExternalId)).toList();
+
+        return ResponseEntity.ok(
+                CustomResponse.builder()
+                        .statusCodeValue(HttpStatus.OK.value())
+                        .status(Constants.Message.SUCCESS_BODY)
+                        .code("USERS_FOUND")
+                        .message("Recherche des utilisateurs effectuée avec succès")
+                        .developerMessage("La recherche des utilisateurs a reussie avec succés")
+                        .data(userDTOs)
+                        .timestamp(LocalDateTime.now())
+                        .traceId(TraceIds.current())
                         .build());
     }
 
@@ -113,10 +197,10 @@ public class UserController {
     @GetMapping("/keycloak/{id}")
     public ResponseEntity<CustomResponse> getUserByKeycloakId (@PathVariable String id) {
         log.info("******************getUserByKeycloakId****************");
-        Optional<User> userOptional = userService.getUserByKeycloakId(id);
+        Optional<UserSummaryView> userOptional = userService.getUserByKeycloakId(id);
 
         UserDto userDTO = userMapper.toDto(userOptional.get());
-        log.info("Utilisateur trouvé userDTOs [getUserById] : {}", userDTO);
+        log.debug("[getUserByKeycloakId] utilisateur {} trouvé", id);
         if (userDTO.getExternalId() != null) {
             List<String> roles =
                     authService.getUserRolesByKeycloakId(userDTO.getExternalId());
@@ -133,22 +217,26 @@ public class UserController {
                                 "La récupération des details d'un utilisateurs via son id à reussie avec succés")
                         .data(userDTO)
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
                         .build());
     }
 
-    /** Détails d'un utilisateur. */
+    /**
+     * Détails d'un utilisateur. La réponse porte un ETag dérivé de {@code version} et un {@code Last-Modified}
+     * dérivé de {@code updatedAt} ; une requête conditionnelle encore valide reçoit un 304 sans mapping ni lecture
+     * des rôles Keycloak.
+     */
     @Operation(
             security = {@SecurityRequirement(name = "bearerAuth")},
             summary = "Détails d'un utilisateur",
             description = "Récupère les informations d’un utilisateur."
     )
     @ApiResponse(responseCode = "200", description = "Utilisateur trouvé")
+    @ApiResponse(responseCode = "304", description = "Utilisateur inchangé depuis la version connue du client")
     @ApiResponse(responseCode = "404", description = "Utilisateur non trouvé")
     @GetMapping("/{id}")
-    public ResponseEntity<CustomResponse> getUserById (@PathVariable UUID id) {
-        log.info("******************getUserByIdController****************");
-        Optional<User> userOptional = userService.getUserById(id);
+    public ResponseEntity<CustomResponse> getUserById (@PathVariable UUID id, WebRequest request) {
+        Optional<UserSummaryView> userOptional = userService.getUserById(id);
 
         if (userOptional.isEmpty()) {
             return ResponseEntity.ok(
@@ -160,12 +248,18 @@ public class UserController {
                             .developerMessage(
                                     "L'utilisateur recherché n'existe pas ou bien son profil est desactivé")
                             .timestamp(LocalDateTime.now())
-                            .traceId(UUID.randomUUID().toString())
+                            .traceId(TraceIds.current())
                             .build());
         }
 
-        User user = userOptional.get();
-        UserDto userDTO = userMapper.toDto(user);
+        UserSummaryView summary = userOptional.get();
+        // Pose aussi les en-têtes ETag et Last-Modified de la réponse
+        if (request.checkNotModified(
+                EntityTags.of(summary.getVersion()), EntityTags.lastModified(summary.getUpdatedAt()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        UserDto userDTO = userMapper.toDto(summary);
 
         if (userDTO.getExternalId() != null) {
             List<String> roles =
@@ -173,7 +267,7 @@ public class UserController {
             userDTO.setRoles(roles);
         }
 
-        log.info("Utilisateur found [getUserById] : {}", userDTO);
+        log.debug("[getUserById] utilisateur {} trouvé", id);
 
         return ResponseEntity.ok(
                 CustomResponse.builder()
@@ -185,7 +279,7 @@ public class UserController {
                                 "La récupération des details d'un utilisateurs via son keycloakId à reussie avec succés")
                         .data(userDTO)
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
                         .build());
     }
 
@@ -195,11 +289,10 @@ public class UserController {
     @PostMapping
     public ResponseEntity<CustomResponse> createUser (@ResponseBody UserDto userDto, HttpServletRequest request) {
         log.info("******************createUserController****************");
-        log.info("userRequestDTO UserRequestDTO [createUser] : {}", userDto);
+        log.debug("[createUser] username : {}", userDto.getUsername());
         String userIdKeycloak = authService.createKeycloakUser(userDto);
         userDto.setExternalId(userIdKeycloak);
         User user = userMapper.toEntity(userDto);
-        log.info("user : {} ", user.toString());
         user.setCreatedAt(new Date().toInstant());
 
         User saved = userService.createUser(user);
@@ -215,10 +308,91 @@ public class UserController {
                                 .developerMessage("Une nouvelle utilisateur viens d'etre creer avec succés")
                                 .data(saved)
                                 .timestamp(LocalDateTime.now())
-                                .traceId(UUID.randomUUID().toString())
+                                .traceId(TraceIds.current())
                                 .build());
     }
 
+    /** Créer un lot d'utilisateurs. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Créer un lot d'utilisateurs",
+            description = "Crée plusieurs utilisateurs en une requête et retourne le résultat de chaque ligne."
+    )
+    @ApiResponse(responseCode = "201", description = "Tous les utilisateurs ont été créés")
+    @ApiResponse(responseCode = "207", description = "Lot traité partiellement, voir le détail par ligne")
+    @PostMapping("/batch")
+    public ResponseEntity<CustomResponse> createUsers (@RequestBody List<UserDto> users) {
+        log.info("******************createUsersController****************");
+        UserBatchReportDto report = userProvisioningService.createUsers(users);
+        HttpStatus status = report.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+
+        return ResponseEntity.status(status)
+                .body(
+                        CustomResponse.builder()
+                                .statusCodeValue(status.value())
+                                .status(report.getFailed() == 0
+                                        ? Constants.Message.CREATED_BODY
+                                        : Constants.Message.SUCCESS_BODY)
+                                .code(report.getFailed() == 0 ? "USERS_CREATED" : "USERS_PARTIALLY_CREATED")
+                                .message(report.getCreated() + " utilisateur(s) créé(s) sur " + report.getTotal())
+                                .developerMessage("Création par lot terminée, détail ligne par ligne dans data.results")
+                                .data(report)
+                                .timestamp(LocalDateTime.now())
+                                .traceId(TraceIds.current())
+                                .build());
+    }
+
+    /** Importer des utilisateurs depuis un fichier CSV. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Importer des utilisateurs (CSV)",
+            description = "Importe des utilisateurs depuis un CSV UTF-8 envoyé comme corps de la requête. L'en-tête "
+                    + "reprend les champs du DTO : username, password, firstName, lastName, email, phoneNumber, "
+                    + "dateOfBirth (facultatif, AAAA-MM-JJ)."
+    )
+    @ApiResponse(responseCode = "201", description = "Toutes les lignes ont été importées")
+    @ApiResponse(responseCode = "207", description = "Import partiel, voir les lignes en échec")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<CustomResponse> importUsers (
+            @RequestParam(defaultValue = ",") char separator,
+            HttpServletRequest request
+    ) throws IOException {
+        UserImportReportDto report = userProvisioningService.importUsers(request.getInputStream(), separator);
+        HttpStatus status = report.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+
+        return ResponseEntity.status(status)
+                .body(
+                        CustomResponse.builder()
+                                .statusCodeValue(status.value())
+                                .status(report.getFailed() == 0
+                                        ? Constants.Message.CREATED_BODY
+                                        : Constants.Message.SUCCESS_BODY)
+                                .code(report.getFailed() == 0 ? "USERS_IMPORTED" : "USERS_PARTIALLY_IMPORTED")
+                                .message(report.getCreated() + " utilisateur(s) importé(s) sur " + report.getTotal())
+                                .developerMessage("Import CSV terminé, lignes en échec dans data.failures")
+                                .data(report)
+                                .timestamp(LocalDateTime.now())
+                                .traceId(TraceIds.current())
+                                .build());
+    }
+
+    /** Exporter les utilisateurs au format CSV. */
+    @Operation(
+            security = {@SecurityRequirement(name = "bearerAuth")},
+            summary = "Exporter les utilisateurs (CSV)",
+            description = "Exporte les utilisateurs actifs au format CSV UTF-8, en flux."
+    )
+    @ApiResponse(responseCode = "200", description = "Export en cours de transfert")
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportUsers () {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"utilisateurs.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     /** Supprimer un utilisateur. */
     @Operation(
             security = {@SecurityRequirement(name = "bearerAuth")},
@@ -239,7 +413,7 @@ public class UserController {
                         .message("Utilisateur supprimé avec succès")
                         .developerMessage("Le profil de ce utilisateur viens d'etre desactivé")
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
                         .build());
     }
 
@@ -250,14 +424,23 @@ public class UserController {
     )
     @ApiResponse(responseCode = "200", description = "Utilisateur mis à jour avec succès")
     @ApiResponse(responseCode = "404", description = "Utilisateur non trouvé ou inactif")
+    @ApiResponse(responseCode = "412", description = "L'utilisateur a été modifié depuis la version indiquée par If-Match")
+    @ApiResponse(responseCode = "428", description = "En-tête If-Match absent alors qu'il est exigé")
     @PutMapping("/{id}")
     public ResponseEntity<CustomResponse> updateUser (
-            @PathVariable UUID id, @RequestBody UserDto dto
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody UserDto dto
     ) {
         log.info("******************updateUserController****************");
-        User updated = userService.updateUser(id, dto);
-        log.info("user update successfully [updateUser] {}:", updated.toString());
-        return ResponseEntity.ok(
+        User updated = userService.updateUser(id, dto, ifMatch);
+        log.info("user update successfully [updateUser] {}", id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String etag = EntityTags.of(updated.getVersion());
+        if (etag != null) {
+            response.eTag(etag).lastModified(EntityTags.lastModified(updated.getUpdatedAt()));
+        }
+        return response.body(
                 CustomResponse.builder()
                         .status(Constants.Message.SUCCESS_BODY)
                         .statusCodeValue(HttpStatus.OK.value())
@@ -266,7 +449,7 @@ public class UserController {
                         .developerMessage("Les informations de ce profil viens d'etre mise a jour avec succés")
                         .data(updated)
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
                         .build());
     }
 
@@ -281,7 +464,7 @@ public class UserController {
     public ResponseEntity<CustomResponse> activateUser (@PathVariable UUID id) {
         log.info("******************activateUserController****************");
         User activated = userService.activateUser(id);
-        log.info("user is acitvate successfully [activateUser] {}:", activated.toString());
+        log.info("user is acitvate successfully [activateUser] {}", id);
         return ResponseEntity.ok(
                 CustomResponse.builder()
                         .statusCodeValue(HttpStatus.OK.value())
@@ -291,7 +474,15 @@ public class UserController {
                         .developerMessage("Le profil de cet utilisateur viens d'etre activé avec succés")
                         .data(activated)
                         .timestamp(LocalDateTime.now())
-                        .traceId(UUID.randomUUID().toString())
+                        .traceId(TraceIds.current())
                         .build());
     }
+
+    private UserDto toDto (UserSummaryView user, Map<String, List<String>> rolesByExternalId) {
+        UserDto dto = userMapper.toDto(user);
+        if (user.getKeycloakId() != null) {
+            dto.setRoles(rolesByExternalId.get(user.getKeycloakId()));
+        }
+        return dto;
+    }
 }
@@ -0,0 +1,17 @@
+package sn.ditontineplateform.domaine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Page d'un listing par curseur : pas de total ni de numéro de page, seulement le jeton de la page suivante.
+ *
+ * @param content    éléments de la page
+ * @param size       taille demandée
+ * @param hasNext    indique s'il reste des éléments
+ * @param nextCursor jeton à renvoyer pour obtenir la page suivante, absent sur la dernière page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPageDto<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,28 @@
+package sn.ditontineplateform.domaine.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Agrégat des cotisations d'un cycle de tontine.
+ *
+ * @param montantAttendu   somme des cotisations non annulées du cycle
+ * @param montantCollecte  somme des cotisations confirmées
+ * @param montantPenalites pénalités de retard des cotisations confirmées
+ * @param nombrePayes      nombre de cotisations confirmées
+ * @param nombreRetards    nombre de cotisations confirmées en retard
+ */
+public record CycleAggregateDto(
+        UUID tontineId,
+        int numeroCycle,
+        BigDecimal montantAttendu,
+        BigDecimal montantCollecte,
+        BigDecimal montantPenalites,
+        int nombrePayes,
+        int nombreRetards
+) {
+
+    public BigDecimal getMontantRestant () {
+        return montantAttendu.subtract(montantCollecte).max(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,29 @@
+package sn.ditontineplateform.domaine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Rapport de création d'un lot d'utilisateurs : une entrée par ligne soumise, dans l'ordre.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserBatchReportDto {
+    private int total;
+    private int created;
+    private int failed;
+    private List<UserBatchResultDto> results;
+
+    public static UserBatchReportDto of (List<UserBatchResultDto> results) {
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == UserBatchResultDto.Status.CREATED)
+                .count();
+        return new UserBatchReportDto(results.size(), created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,34 @@
+package sn.ditontineplateform.domaine.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Résultat de la création d'un utilisateur au sein d'un lot.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserBatchResultDto {
+
+    public enum Status { CREATED, FAILED }
+
+    /** Position de l'utilisateur dans le lot soumis. */
+    private int index;
+    private String username;
+    private String email;
+    private Status status;
+    private String externalId;
+    private UUID userId;
+    private String errorCode;
+    private String message;
+}
@@ -0,0 +1,45 @@
+package sn.ditontineplateform.domaine.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position dans le listing des utilisateurs trié par {@code (createdAt, id)}. Transmise au client sous forme de
+ * jeton opaque (Base64 URL) ; son contenu n'est pas un contrat d'API.
+ *
+ * @param createdAt date de création du dernier utilisateur renvoyé
+ * @param id        identifiant du dernier utilisateur renvoyé
+ */
+public record UserCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static UserCursor of (UserSummaryView user) {
+        return new UserCursor(user.getCreatedAt(), user.getId());
+    }
+
+    public String encode () {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le jeton est mal formé
+     */
+    public static UserCursor decode (String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+        try {
+            return new UserCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide", e);
+        }
+    }
+}
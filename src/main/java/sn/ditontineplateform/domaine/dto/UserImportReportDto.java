@@ -0,0 +1,41 @@
+package sn.ditontineplateform.domaine.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rapport d'un import CSV d'utilisateurs. Seules les lignes en échec sont détaillées, dans la limite
+ * {@code maxFailures}, afin que la taille du rapport ne dépende pas de celle du fichier.
+ */
+@Getter
+public class UserImportReportDto {
+    private int total;
+    private int created;
+    private int failed;
+    private boolean failuresTruncated;
+    private final List<UserBatchResultDto> failures = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxFailures;
+
+    public UserImportReportDto (int maxFailures) {
+        this.maxFailures = maxFailures;
+    }
+
+    public void add (UserBatchResultDto result) {
+        total++;
+        if (result.getStatus() == UserBatchResultDto.Status.CREATED) {
+            created++;
+            return;
+        }
+        failed++;
+        if (failures.size() < maxFailures) {
+            failures.add(result);
+        } else {
+            failuresTruncated = true;
+        }
+    }
+}
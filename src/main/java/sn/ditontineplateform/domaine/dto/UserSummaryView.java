@@ -0,0 +1,47 @@
+package sn.ditontineplateform.domaine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection des colonnes d'un utilisateur exposées par les endpoints de lecture. Chargée sans passer par l'entité
+ * {@code User} : ni contexte de persistance, ni relations, ni colonnes inutiles (mot de passe, préférences, ...).
+ * <p>
+ * Classe construite par une expression {@code select new} plutôt qu'interface : Spring Data matérialise une
+ * projection par interface en proxy dynamique adossé à une map, plus coûteux par ligne que l'hydratation de
+ * l'entité elle-même (voir {@code UserReadPathBenchmark}).
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummaryView {
+
+    private final UUID id;
+
+    private final String fullName;
+
+    private final String email;
+
+    private final String telephone;
+
+    private final String keycloakId;
+
+    private final LocalDate dateNaissance;
+
+    private final Boolean isActive;
+
+    private final Boolean emailVerified;
+
+    private final Boolean phoneVerified;
+
+    private final String profileImageUrl;
+
+    private final LocalDateTime createdAt;
+
+    private final LocalDateTime updatedAt;
+
+    private final Long version;
+}
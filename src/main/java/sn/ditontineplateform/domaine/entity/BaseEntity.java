@@ -6,6 +6,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PreRemove;
+import jakarta.persistence.Version;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -54,6 +55,14 @@ public abstract class BaseEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Version de l'entité pour le verrouillage optimiste. Incrémentée à chaque mise à jour ; une écriture concurrente
+     * sur une version périmée échoue au lieu d'écraser silencieusement la précédente.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Méthode appelée avant la suppression de l'entité. Effectue une suppression logique en définissant isDeleted à
      * true.
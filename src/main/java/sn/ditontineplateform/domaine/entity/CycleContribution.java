@@ -0,0 +1,74 @@
+package sn.ditontineplateform.domaine.entity;
+
+import sn.ditontineplateform.domaine.enumeration.StatutPaiement;
+import sn.ditontineplateform.domaine.enumeration.TypePaiement;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Part d'un paiement de cotisation dans l'agrégat de son cycle (ou l'écart entre deux états d'un paiement).
+ * <p>
+ * Une cotisation compte dans le montant attendu tant qu'elle n'est pas annulée ; une fois confirmée, elle compte aussi
+ * dans le montant collecté, les pénalités, le nombre de paiements et, si elle était en retard, le nombre de retards.
+ * Les autres types de paiement et les paiements sans cycle ne contribuent pas.
+ */
+public record CycleContribution(
+        UUID tontineId,
+        int numeroCycle,
+        BigDecimal montantAttendu,
+        BigDecimal montantCollecte,
+        BigDecimal montantPenalites,
+        int nombrePayes,
+        int nombreRetards
+) {
+
+    /**
+     * Contribution de l'état courant du paiement, {@code null} s'il ne contribue à aucun cycle.
+     */
+    public static CycleContribution of (Paiement paiement) {
+        if (!TypePaiement.COTISATION.equals(paiement.getTypePaiement())
+                || paiement.getNumeroCycle() == null
+                || paiement.getTontine() == null
+                || paiement.getMontant() == null) {
+            return null;
+        }
+        boolean annule = StatutPaiement.ANNULE.equals(paiement.getStatut());
+        boolean confirme = StatutPaiement.CONFIRME.equals(paiement.getStatut());
+        boolean retard = paiement.getJoursRetard() != null && paiement.getJoursRetard() > 0;
+        BigDecimal penalite = paiement.getMontantPenalite() != null ? paiement.getMontantPenalite() : BigDecimal.ZERO;
+
+        return new CycleContribution(
+                paiement.getTontine().getId(),
+                paiement.getNumeroCycle(),
+                annule ? BigDecimal.ZERO : paiement.getMontant(),
+                confirme ? paiement.getMontant() : BigDecimal.ZERO,
+                confirme ? penalite : BigDecimal.ZERO,
+                confirme ? 1 : 0,
+                confirme && retard ? 1 : 0);
+    }
+
+    public boolean memeCycle (CycleContribution other) {
+        return other != null && tontineId.equals(other.tontineId) && numeroCycle == other.numeroCycle;
+    }
+
+    public CycleContribution negate () {
+        return new CycleContribution(tontineId, numeroCycle, montantAttendu.negate(), montantCollecte.negate(),
+                montantPenalites.negate(), -nombrePayes, -nombreRetards);
+    }
+
+    /** Écart {@code this - previous}, pour un même cycle. */
+    public CycleContribution minus (CycleContribution previous) {
+        return new CycleContribution(tontineId, numeroCycle,
+                montantAttendu.subtract(previous.montantAttendu),
+                montantCollecte.subtract(previous.montantCollecte),
+                montantPenalites.subtract(previous.montantPenalites),
+                nombrePayes - previous.nombrePayes,
+                nombreRetards - previous.nombreRetards);
+    }
+
+    public boolean isZero () {
+        return montantAttendu.signum() == 0 && montantCollecte.signum() == 0 && montantPenalites.signum() == 0
+                && nombrePayes == 0 && nombreRetards == 0;
+    }
+}
@@ -2,14 +2,17 @@ package sn.ditontineplateform.domaine.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -35,9 +38,10 @@ import java.time.LocalDateTime;
  * @since 2025-01-01
  */
 @Data
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true, exclude = "contributionChargee")
+@ToString(callSuper = true, exclude = "contributionChargee")
 @Entity
+@EntityListeners(PaiementAggregateListener.class)
 @Table(name = "paiements")
 public class Paiement extends BaseEntity {
 
@@ -168,6 +172,17 @@ public class Paiement extends BaseEntity {
     @Column(name = "tentative")
     private Integer tentative = 1;
 
+    /**
+     * Contribution à l'agrégat du cycle telle que lue en base, pour n'y reporter que l'écart lors d'une mise à jour.
+     */
+    @Transient
+    private CycleContribution contributionChargee;
+
+    @PostLoad
+    void memoriserContribution () {
+        this.contributionChargee = CycleContribution.of(this);
+    }
+
     /**
      * Vérifie si le paiement est confirmé.
      *
@@ -0,0 +1,60 @@
+package sn.ditontineplateform.domaine.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import sn.ditontineplateform.domaine.repository.CycleAggregateRepository;
+
+/**
+ * Reporte sur {@code tontine_cycle_aggregates} l'écart entre l'état d'un {@link Paiement} lu en base et son nouvel
+ * état : création, {@link Paiement#confirmer(String)}, {@link Paiement#marquerEchoue(String)},
+ * {@link Paiement#annuler(String)} et suppression. L'écart est appliqué au flush, dans la transaction du paiement.
+ * <p>
+ * Seules les écritures passant par le contexte de persistance déclenchent ce listener. Une mise à jour JPQL
+ * ({@code @Modifying}) ou JDBC sur {@code paiements} doit reporter elle-même ses écarts via
+ * {@link sn.ditontineplateform.domaine.repository.CycleAggregateRepository#appliquerTous}, comme
+ * {@code TontineScheduleEngine}, ou être suivie d'une reconstruction de la tontine concernée.
+ */
+public class PaiementAggregateListener {
+
+    private final ObjectProvider<CycleAggregateRepository> aggregates;
+
+    public PaiementAggregateListener (ObjectProvider<CycleAggregateRepository> aggregates) {
+        this.aggregates = aggregates;
+    }
+
+    @PostPersist
+    void onPersist (Paiement paiement) {
+        CycleContribution current = CycleContribution.of(paiement);
+        appliquer(current);
+        paiement.setContributionChargee(current);
+    }
+
+    @PostUpdate
+    void onUpdate (Paiement paiement) {
+        CycleContribution previous = paiement.getContributionChargee();
+        CycleContribution current = CycleContribution.of(paiement);
+        if (current != null && current.memeCycle(previous)) {
+            appliquer(current.minus(previous));
+        } else {
+            appliquer(previous != null ? previous.negate() : null);
+            appliquer(current);
+        }
+        paiement.setContributionChargee(current);
+    }
+
+    @PostRemove
+    void onRemove (Paiement paiement) {
+        CycleContribution previous = paiement.getContributionChargee() != null
+                ? paiement.getContributionChargee()
+                : CycleContribution.of(paiement);
+        appliquer(previous != null ? previous.negate() : null);
+    }
+
+    private void appliquer (CycleContribution delta) {
+        if (delta != null && !delta.isZero()) {
+            aggregates.getObject().appliquer(delta);
+        }
+    }
+}
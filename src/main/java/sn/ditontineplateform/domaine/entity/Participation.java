@@ -3,13 +3,16 @@ package sn.ditontineplateform.domaine.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -35,9 +38,10 @@ import java.util.Set;
  * @since 2025-01-01
  */
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"paiements", "jackpotsRecus"})
-@ToString(callSuper = true, exclude = {"paiements", "jackpotsRecus"})
+@EqualsAndHashCode(callSuper = true, exclude = {"paiements", "jackpotsRecus", "statutCharge"})
+@ToString(callSuper = true, exclude = {"paiements", "jackpotsRecus", "statutCharge"})
 @Entity
+@EntityListeners(ParticipationCounterListener.class)
 @Table(
         name = "participations", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"participant_id", "tontine_id"})
@@ -67,6 +71,12 @@ public class Participation extends BaseEntity {
     @Column(name = "statut", nullable = false)
     private StatutParticipation statut = StatutParticipation.EN_ATTENTE;
 
+    /**
+     * Statut tel que lu en base, pour reporter un changement de statut sur les compteurs de la tontine.
+     */
+    @Transient
+    private StatutParticipation statutCharge;
+
     /**
      * Date de demande de participation.
      */
@@ -160,6 +170,11 @@ public class Participation extends BaseEntity {
     @OneToMany(mappedBy = "beneficiaire", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Jackpot> jackpotsRecus = new HashSet<>();
 
+    @PostLoad
+    void memoriserStatut () {
+        this.statutCharge = this.statut;
+    }
+
     /**
      * Vérifie si la participation est active.
      *
@@ -0,0 +1,65 @@
+package sn.ditontineplateform.domaine.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import sn.ditontineplateform.domaine.enumeration.StatutParticipation;
+import sn.ditontineplateform.domaine.repository.TontineCounters;
+
+/**
+ * Reporte chaque création, changement de statut et suppression d'une {@link Participation} sur les compteurs de sa
+ * tontine. Les callbacks s'exécutent au flush, dans la transaction qui modifie la participation : compteurs et
+ * participations sont validés ou annulés ensemble.
+ * <p>
+ * Les colonnes de compteurs ne sont pas relues après l'UPDATE : le même delta est reporté sur la tontine si elle est
+ * déjà chargée, pour que {@link Tontine#peutAccepterNouveauParticipant()} reste juste dans la transaction. Un proxy
+ * non initialisé est laissé tel quel, son chargement lira les valeurs déjà incrémentées.
+ * <p>
+ * Instancié par Hibernate via le conteneur de beans Spring ; les compteurs sont résolus au premier appel pour ne pas
+ * dépendre de l'ordre de création de l'EntityManagerFactory.
+ */
+public class ParticipationCounterListener {
+
+    private final ObjectProvider<TontineCounters> counters;
+
+    public ParticipationCounterListener (ObjectProvider<TontineCounters> counters) {
+        this.counters = counters;
+    }
+
+    @PostPersist
+    void onPersist (Participation participation) {
+        counters.getObject().incrementer(participation.getTontine().getId(), participation.getStatut());
+        ajuster(participation.getTontine(), participation.getStatut(), 1);
+        participation.setStatutCharge(participation.getStatut());
+    }
+
+    @PostUpdate
+    void onUpdate (Participation participation) {
+        if (participation.getStatutCharge() != null) {
+            counters.getObject().deplacer(
+                    participation.getTontine().getId(), participation.getStatutCharge(), participation.getStatut());
+            if (participation.getStatutCharge() != participation.getStatut()) {
+                ajuster(participation.getTontine(), participation.getStatutCharge(), -1);
+                ajuster(participation.getTontine(), participation.getStatut(), 1);
+            }
+        }
+        participation.setStatutCharge(participation.getStatut());
+    }
+
+    @PostRemove
+    void onRemove (Participation participation) {
+        StatutParticipation statut = participation.getStatutCharge() != null
+                ? participation.getStatutCharge()
+                : participation.getStatut();
+        counters.getObject().decrementer(participation.getTontine().getId(), statut);
+        ajuster(participation.getTontine(), statut, -1);
+    }
+
+    private static void ajuster (Tontine tontine, StatutParticipation statut, int delta) {
+        if (Hibernate.isInitialized(tontine)) {
+            tontine.ajusterCompteur(statut, delta);
+        }
+    }
+}
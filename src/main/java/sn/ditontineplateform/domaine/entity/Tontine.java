@@ -3,15 +3,18 @@ package sn.ditontineplateform.domaine.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Max;
@@ -22,6 +25,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import sn.ditontineplateform.domaine.enumeration.StatutParticipation;
 import sn.ditontineplateform.domaine.enumeration.StatutTontine;
 import sn.ditontineplateform.domaine.enumeration.TypeEvenement;
 import sn.ditontineplateform.domaine.enumeration.TypeTirage;
@@ -41,9 +45,11 @@ import java.util.Set;
  * @since 2025-01-01
  */
 @Data
-@EqualsAndHashCode(callSuper = true, exclude = {"participations", "jackpots", "paiements", "notifications"})
-@ToString(callSuper = true, exclude = {"participations", "jackpots", "paiements", "notifications"})
+@EqualsAndHashCode(callSuper = true,
+        exclude = {"participations", "jackpots", "paiements", "notifications", "statutCharge"})
+@ToString(callSuper = true, exclude = {"participations", "jackpots", "paiements", "notifications", "statutCharge"})
 @Entity
+@EntityListeners(TontineActivationListener.class)
 @Table(name = "tontines")
 public class Tontine extends BaseEntity {
 
@@ -86,6 +92,13 @@ public class Tontine extends BaseEntity {
     @Column(name = "statut", nullable = false)
     private StatutTontine statut = StatutTontine.EN_ATTENTE;
 
+    /**
+     * Statut tel que lu en base, pour détecter le passage à {@link StatutTontine#ACTIVE} ; passe à
+     * {@link StatutTontine#ACTIVE} une fois l'échéancier généré.
+     */
+    @Transient
+    private StatutTontine statutCharge;
+
     /**
      * Montant de cotisation pour les tontines classiques.
      */
@@ -223,6 +236,38 @@ public class Tontine extends BaseEntity {
     @OneToMany(mappedBy = "tontine", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Participation> participations = new HashSet<>();
 
+    /**
+     * Nombre de participations actives. Comme les compteurs suivants, il est tenu à jour en SQL (incréments
+     * atomiques) à chaque changement d'une participation et n'est jamais réécrit par Hibernate après l'insertion :
+     * une tontine chargée puis sauvegardée n'écrase pas les incréments concurrents.
+     */
+    @Column(name = "nombre_participants_actifs", nullable = false, updatable = false)
+    private Integer nombreParticipantsActifs = 0;
+
+    /**
+     * Nombre de participations en attente de validation.
+     */
+    @Column(name = "nombre_participants_en_attente", nullable = false, updatable = false)
+    private Integer nombreParticipantsEnAttente = 0;
+
+    /**
+     * Nombre de participations suspendues.
+     */
+    @Column(name = "nombre_participants_suspendus", nullable = false, updatable = false)
+    private Integer nombreParticipantsSuspendus = 0;
+
+    /**
+     * Nombre de participations terminées.
+     */
+    @Column(name = "nombre_participants_termines", nullable = false, updatable = false)
+    private Integer nombreParticipantsTermines = 0;
+
+    /**
+     * Nombre de participations exclues.
+     */
+    @Column(name = "nombre_participants_exclus", nullable = false, updatable = false)
+    private Integer nombreParticipantsExclus = 0;
+
     /**
      * Jackpots de la tontine.
      */
@@ -241,6 +286,11 @@ public class Tontine extends BaseEntity {
     @OneToMany(mappedBy = "tontine", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Notification> notifications = new HashSet<>();
 
+    @PostLoad
+    void memoriserStatut () {
+        this.statutCharge = this.statut;
+    }
+
     /**
      * Vérifie si la tontine est de type événementielle.
      *
@@ -265,16 +315,36 @@ public class Tontine extends BaseEntity {
      * @return true si la tontine peut accepter de nouveaux participants
      */
     public boolean peutAccepterNouveauParticipant () {
-        return isActive() && participations.size() < nombreMaxParticipants;
+        return isActive() && getNombreParticipants() < nombreMaxParticipants;
     }
 
     /**
-     * Retourne le nombre actuel de participants.
+     * Retourne le nombre actuel de participants, tous statuts confondus, depuis les compteurs (la collection des
+     * participations n'est pas chargée).
      *
      * @return le nombre de participants
      */
     public int getNombreParticipants () {
-        return participations.size();
+        return nombreParticipantsActifs + nombreParticipantsEnAttente + nombreParticipantsSuspendus
+                + nombreParticipantsTermines + nombreParticipantsExclus;
+    }
+
+    /**
+     * Reporte sur l'instance chargée un incrément déjà appliqué en SQL par {@code TontineCounters} : les colonnes
+     * n'étant jamais relues dans la transaction, les contrôles de capacité voient ainsi les participations déjà
+     * flushées.
+     *
+     * @param statut statut de la participation concernée
+     * @param delta  variation du compteur (+1 ou -1)
+     */
+    public void ajusterCompteur (StatutParticipation statut, int delta) {
+        switch (statut) {
+            case ACTIVE -> nombreParticipantsActifs += delta;
+            case EN_ATTENTE -> nombreParticipantsEnAttente += delta;
+            case SUSPENDUE -> nombreParticipantsSuspendus += delta;
+            case TERMINEE -> nombreParticipantsTermines += delta;
+            case EXCLUE -> nombreParticipantsExclus += delta;
+        }
     }
 
     /**
@@ -287,7 +357,8 @@ public class Tontine extends BaseEntity {
     }
 
     /**
-     * Calcule le montant total collecté par cycle.
+     * Calcule le montant total collecté par cycle. Parcourt les participations des tontines événementielles : les
+     * écrans de suivi lisent plutôt les agrégats par cycle ({@code CycleAggregateService}).
      *
      * @return le montant total par cycle
      */
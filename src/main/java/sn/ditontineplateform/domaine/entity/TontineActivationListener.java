@@ -0,0 +1,70 @@
+package sn.ditontineplateform.domaine.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sn.ditontineplateform.domaine.enumeration.StatutTontine;
+import sn.ditontineplateform.domaine.schedule.TontineActivationEvent;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Recense les tontines créées, ou chargées alors qu'elles ne sont pas encore {@link StatutTontine#ACTIVE}, dans la
+ * transaction courante : celles qui y sont activées voient leur échéancier généré juste avant la validation
+ * ({@code TontineActivationHandler}), une fois les participations écrites. Un seul {@link TontineActivationEvent},
+ * donc un seul callback {@code BEFORE_COMMIT}, est publié par transaction, quel que soit le nombre de tontines lues.
+ * <p>
+ * Le passage à {@link StatutTontine#ACTIVE} n'est pas détecté au flush : le dernier flush a lieu pendant la
+ * validation, après les callbacks {@code BEFORE_COMMIT}, et une activation qui n'apparaîtrait qu'à ce moment ne
+ * serait jamais planifiée. Une tontine déjà active n'est plus suivie : son activation a été refusée si elle n'était
+ * pas planifiable ({@code TontineScheduleEngine}), elle a donc déjà son échéancier. Hors transaction, rien n'est
+ * recensé.
+ */
+public class TontineActivationListener {
+
+    private static final Object CANDIDATES_KEY = TontineActivationListener.class;
+
+    private final ObjectProvider<ApplicationEventPublisher> publisher;
+
+    public TontineActivationListener (ObjectProvider<ApplicationEventPublisher> publisher) {
+        this.publisher = publisher;
+    }
+
+    @PrePersist
+    void onCreate (Tontine tontine) {
+        recenser(tontine);
+    }
+
+    // Appelé avant Tontine#memoriserStatut : seul le statut lu est renseigné
+    @PostLoad
+    void onLoad (Tontine tontine) {
+        if (!StatutTontine.ACTIVE.equals(tontine.getStatut())) {
+            recenser(tontine);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recenser (Tontine tontine) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Set<Tontine> candidates = (Set<Tontine>) TransactionSynchronizationManager.getResource(CANDIDATES_KEY);
+        if (candidates == null) {
+            candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            TransactionSynchronizationManager.bindResource(CANDIDATES_KEY, candidates);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion (int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CANDIDATES_KEY);
+                }
+            });
+            publisher.getObject().publishEvent(new TontineActivationEvent(candidates));
+        }
+        candidates.add(tontine);
+    }
+}
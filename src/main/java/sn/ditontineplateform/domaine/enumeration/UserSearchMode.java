@@ -0,0 +1,9 @@
+package sn.ditontineplateform.domaine.enumeration;
+
+/**
+ * Mode de correspondance de la recherche d'utilisateurs : début de champ (saisie assistée) ou n'importe où dans le
+ * champ.
+ */
+public enum UserSearchMode {
+    PREFIX, INFIX
+}
@@ -1,10 +1,17 @@
 package sn.ditontineplateform.domaine.mapper;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
 import sn.ditontineplateform.domaine.entity.User;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -13,10 +20,25 @@ public interface UserMapper {
 
     UserDto toDto (User user);
 
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "userId", source = "id")
+    @Mapping(target = "firstName", source = "fullName")
+    @Mapping(target = "externalId", source = "keycloakId")
+    @Mapping(target = "phoneNumber", source = "telephone")
+    @Mapping(target = "dateOfBirth", source = "dateNaissance")
+    @Mapping(target = "active", source = "isActive")
+    @Mapping(target = "photoUrl", source = "profileImageUrl")
+    UserDto toDto (UserSummaryView user);
+
     User toEntity (UserDto userDto);
 
     List<UserDto> toDtoList (List<User> users);
 
     List<User> toEntityList (List<UserDto> userDtos);
 
+    // Les dates sont stockées en heure locale du serveur (LocalDateTime) et exposées en Instant
+    default Instant toInstant (LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
 }
@@ -0,0 +1,139 @@
+package sn.ditontineplateform.domaine.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import sn.ditontineplateform.domaine.dto.CycleAggregateDto;
+import sn.ditontineplateform.domaine.entity.CycleContribution;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Agrégats par tontine et par cycle ({@code tontine_cycle_aggregates}).
+ * <p>
+ * Les écarts sont appliqués par un upsert relatif ({@code col = col + delta}) : les confirmations concurrentes d'un
+ * même cycle s'additionnent sans lecture préalable. La reconstruction recalcule les agrégats depuis
+ * {@code paiements} sous un verrou de table, de sorte qu'aucun écart concurrent n'est compté deux fois ni perdu.
+ * <p>
+ * Les écarts viennent de {@code PaiementAggregateListener} pour les paiements modifiés par entité ; tout code qui
+ * écrit dans {@code paiements} en masse (JPQL, JDBC) contourne ce listener et doit appeler {@link #appliquerTous}
+ * avec ses écarts, ou {@link #reconstruire(UUID)} ensuite, sans quoi les agrégats dérivent.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CycleAggregateRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO tontine_cycle_aggregates AS a (tontine_id, numero_cycle, montant_attendu, montant_collecte,
+                                                      montant_penalites, nombre_payes, nombre_retards, updated_at)
+            VALUES (:tontineId, :numeroCycle, :montantAttendu, :montantCollecte,
+                    :montantPenalites, :nombrePayes, :nombreRetards, now())
+            ON CONFLICT (tontine_id, numero_cycle) DO UPDATE
+                SET montant_attendu = a.montant_attendu + excluded.montant_attendu,
+                    montant_collecte = a.montant_collecte + excluded.montant_collecte,
+                    montant_penalites = a.montant_penalites + excluded.montant_penalites,
+                    nombre_payes = a.nombre_payes + excluded.nombre_payes,
+                    nombre_retards = a.nombre_retards + excluded.nombre_retards,
+                    updated_at = now()
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT tontine_id, numero_cycle, montant_attendu, montant_collecte, montant_penalites,
+                   nombre_payes, nombre_retards
+            FROM tontine_cycle_aggregates
+            WHERE tontine_id = :tontineId
+            """;
+
+    private static final String LOCK_SQL = "LOCK TABLE tontine_cycle_aggregates IN EXCLUSIVE MODE";
+
+    private static final String REBUILD_SELECT = """
+            INSERT INTO tontine_cycle_aggregates (tontine_id, numero_cycle, montant_attendu, montant_collecte,
+                                                  montant_penalites, nombre_payes, nombre_retards, updated_at)
+            SELECT tontine_id,
+                   numero_cycle,
+                   coalesce(sum(montant) FILTER (WHERE statut <> 'ANNULE'), 0),
+                   coalesce(sum(montant) FILTER (WHERE statut = 'CONFIRME'), 0),
+                   coalesce(sum(coalesce(montant_penalite, 0)) FILTER (WHERE statut = 'CONFIRME'), 0),
+                   count(*) FILTER (WHERE statut = 'CONFIRME'),
+                   count(*) FILTER (WHERE statut = 'CONFIRME' AND jours_retard > 0),
+                   now()
+            FROM paiements
+            WHERE type_paiement = 'COTISATION' AND numero_cycle IS NOT NULL AND is_deleted = false
+            """;
+
+    private static final RowMapper<CycleAggregateDto> ROW_MAPPER = (rs, rowNum) -> new CycleAggregateDto(
+            rs.getObject("tontine_id", UUID.class),
+            rs.getInt("numero_cycle"),
+            rs.getBigDecimal("montant_attendu"),
+            rs.getBigDecimal("montant_collecte"),
+            rs.getBigDecimal("montant_penalites"),
+            rs.getInt("nombre_payes"),
+            rs.getInt("nombre_retards"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void appliquer (CycleContribution delta) {
+        jdbcTemplate.update(UPSERT_SQL, params(delta));
+    }
+
+    /** Applique plusieurs écarts en un seul lot JDBC. */
+    public void appliquerTous (List<CycleContribution> deltas) {
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL,
+                    deltas.stream().map(CycleAggregateRepository::params).toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    public List<CycleAggregateDto> findByTontine (UUID tontineId) {
+        return jdbcTemplate.query(
+                SELECT_SQL + " ORDER BY numero_cycle", new MapSqlParameterSource("tontineId", tontineId), ROW_MAPPER);
+    }
+
+    public Optional<CycleAggregateDto> findCycle (UUID tontineId, int numeroCycle) {
+        return jdbcTemplate.query(SELECT_SQL + " AND numero_cycle = :numeroCycle", new MapSqlParameterSource()
+                        .addValue("tontineId", tontineId)
+                        .addValue("numeroCycle", numeroCycle), ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    private static MapSqlParameterSource params (CycleContribution delta) {
+        return new MapSqlParameterSource()
+                .addValue("tontineId", delta.tontineId())
+                .addValue("numeroCycle", delta.numeroCycle())
+                .addValue("montantAttendu", delta.montantAttendu())
+                .addValue("montantCollecte", delta.montantCollecte())
+                .addValue("montantPenalites", delta.montantPenalites())
+                .addValue("nombrePayes", delta.nombrePayes())
+                .addValue("nombreRetards", delta.nombreRetards());
+    }
+
+    /**
+     * Recalcule les agrégats d'une tontine. À appeler dans une transaction.
+     *
+     * @return le nombre de cycles agrégés
+     */
+    public int reconstruire (UUID tontineId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("tontineId", tontineId);
+        jdbcTemplate.getJdbcTemplate().execute(LOCK_SQL);
+        jdbcTemplate.update("DELETE FROM tontine_cycle_aggregates WHERE tontine_id = :tontineId", params);
+        return jdbcTemplate.update(
+                REBUILD_SELECT + " AND tontine_id = :tontineId GROUP BY tontine_id, numero_cycle", params);
+    }
+
+    /**
+     * Recalcule tous les agrégats. À appeler dans une transaction.
+     *
+     * @return le nombre de cycles agrégés
+     */
+    public int reconstruireTout () {
+        jdbcTemplate.getJdbcTemplate().execute(LOCK_SQL);
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM tontine_cycle_aggregates");
+        return jdbcTemplate.getJdbcTemplate().update(REBUILD_SELECT + " GROUP BY tontine_id, numero_cycle");
+    }
+}
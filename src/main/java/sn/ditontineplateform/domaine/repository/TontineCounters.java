@@ -0,0 +1,88 @@
+package sn.ditontineplateform.domaine.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import sn.ditontineplateform.domaine.enumeration.StatutParticipation;
+
+import java.util.UUID;
+
+/**
+ * Compteurs de participations par statut stockés sur {@code tontines}.
+ * <p>
+ * Chaque mise à jour est un unique UPDATE relatif ({@code col = col + 1}) exécuté dans la transaction en cours : deux
+ * participations qui changent en même temps ne se perdent pas, sans verrou applicatif ni incrément de la version de
+ * la tontine. Appelé par {@code ParticipationCounterListener} ; {@link #recompter(UUID)} resynchronise une tontine
+ * depuis la table des participations.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TontineCounters {
+
+    private static final String RECOUNT_SQL = """
+            UPDATE tontines SET
+                nombre_participants_actifs = c.actifs,
+                nombre_participants_en_attente = c.en_attente,
+                nombre_participants_suspendus = c.suspendus,
+                nombre_participants_termines = c.termines,
+                nombre_participants_exclus = c.exclus
+            FROM (
+                SELECT count(*) FILTER (WHERE statut = 'ACTIVE') AS actifs,
+                       count(*) FILTER (WHERE statut = 'EN_ATTENTE') AS en_attente,
+                       count(*) FILTER (WHERE statut = 'SUSPENDUE') AS suspendus,
+                       count(*) FILTER (WHERE statut = 'TERMINEE') AS termines,
+                       count(*) FILTER (WHERE statut = 'EXCLUE') AS exclus
+                FROM participations
+                WHERE tontine_id = :tontineId AND is_deleted = false
+            ) c
+            WHERE tontines.id = :tontineId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** Nouvelle participation. */
+    public void incrementer (UUID tontineId, StatutParticipation statut) {
+        jdbcTemplate.update(
+                "UPDATE tontines SET " + increment(statut, 1) + " WHERE id = :tontineId", params(tontineId));
+    }
+
+    /** Participation supprimée. */
+    public void decrementer (UUID tontineId, StatutParticipation statut) {
+        jdbcTemplate.update(
+                "UPDATE tontines SET " + increment(statut, -1) + " WHERE id = :tontineId", params(tontineId));
+    }
+
+    /** Changement de statut d'une participation : les deux compteurs bougent dans la même instruction. */
+    public void deplacer (UUID tontineId, StatutParticipation ancien, StatutParticipation nouveau) {
+        if (ancien == nouveau) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE tontines SET " + increment(ancien, -1) + ", " + increment(nouveau, 1)
+                + " WHERE id = :tontineId", params(tontineId));
+    }
+
+    /** Recalcule les compteurs d'une tontine depuis la table des participations. */
+    public void recompter (UUID tontineId) {
+        jdbcTemplate.update(RECOUNT_SQL, params(tontineId));
+    }
+
+    private static MapSqlParameterSource params (UUID tontineId) {
+        return new MapSqlParameterSource("tontineId", tontineId);
+    }
+
+    private static String increment (StatutParticipation statut, int delta) {
+        String column = column(statut);
+        return column + " = " + column + (delta > 0 ? " + " : " - ") + Math.abs(delta);
+    }
+
+    private static String column (StatutParticipation statut) {
+        return switch (statut) {
+            case ACTIVE -> "nombre_participants_actifs";
+            case EN_ATTENTE -> "nombre_participants_en_attente";
+            case SUSPENDUE -> "nombre_participants_suspendus";
+            case TERMINEE -> "nombre_participants_termines";
+            case EXCLUE -> "nombre_participants_exclus";
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package sn.ditontineplateform.domaine.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import sn.ditontineplateform.domaine.entity.User;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Insertion JDBC par lots des utilisateurs importés, sans passer par le contexte de persistance. Avec
+ * {@code reWriteBatchedInserts}, le pilote Postgres regroupe le lot en quelques INSERT multi-lignes.
+ * <p>
+ * Les colonnes non nulles que Hibernate alimente depuis les valeurs par défaut de l'entité sont renseignées ici.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO users (id, is_deleted, version, created_at, updated_at, full_name, email, telephone,
+                               mot_de_passe, date_naissance, is_active, email_verified, phone_verified, keycloak_id,
+                               preferred_language, roles, score_ponctualite, tontines_completees,
+                               notifications_enabled, rappels_cotisation_enabled, newsletter_enabled, pays)
+            VALUES (:id, false, 0, :now, :now, :fullName, :email, :telephone, :motDePasse,
+                    :dateNaissance, true, false, false, :keycloakId,
+                    'fr', CAST('[]' AS jsonb), 100.00, 0,
+                    true, true, true, 'Sénégal')
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Insère le lot dans une seule transaction : en cas d'erreur, aucune ligne du lot n'est conservée.
+     *
+     * @return les identifiants attribués, dans l'ordre du lot
+     */
+    @Transactional
+    public List<UUID> insertAll (List<User> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<UUID> ids = users.stream().map(user -> UUID.randomUUID()).toList();
+        SqlParameterSource[] batch = new SqlParameterSource[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            batch[i] = parameters(ids.get(i), users.get(i), now);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        return ids;
+    }
+
+    public UUID insert (User user) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_SQL, parameters(id, user, Timestamp.valueOf(LocalDateTime.now())));
+        return id;
+    }
+
+    private static SqlParameterSource parameters (UUID id, User user, Timestamp now) {
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("now", now)
+                .addValue("fullName", user.getFullName())
+                .addValue("email", user.getEmail())
+                .addValue("telephone", user.getTelephone())
+                .addValue("motDePasse", user.getMotDePasse())
+                .addValue("dateNaissance", user.getDateNaissance() == null ? null : Date.valueOf(user.getDateNaissance()))
+                .addValue("keycloakId", user.getKeycloakId());
+    }
+}
@@ -1,18 +1,36 @@
 package sn.ditontineplateform.domaine.repository;
 
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
 import sn.ditontineplateform.domaine.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
+    String SUMMARY_SELECT = """
+            select new sn.ditontineplateform.domaine.dto.UserSummaryView(
+                   u.id, u.fullName, u.email, u.telephone, u.keycloakId, u.dateNaissance, u.isActive,
+                   u.emailVerified, u.phoneVerified, u.profileImageUrl, u.createdAt, u.updatedAt, u.version)
+            from User u
+            """;
+
     // Recherche par identifiants uniques
     Optional<User> findByEmail (String email);
 
@@ -35,5 +53,59 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
 
     Page<User> findByGender (String gender, Pageable pageable);
 
+    // Projections des endpoints de lecture : seules les colonnes renvoyées sont chargées
+    @Query(value = SUMMARY_SELECT + "where u.isActive = true",
+            countQuery = "select count(u) from User u where u.isActive = true")
+    Page<UserSummaryView> findActiveSummaries (Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where u.id = :id and u.isActive = true")
+    Optional<UserSummaryView> findActiveSummaryById (@Param("id") UUID id);
+
+    @Query(SUMMARY_SELECT + "where u.email = :email")
+    Optional<UserSummaryView> findSummaryByEmail (@Param("email") String email);
+
+    @Query(SUMMARY_SELECT + "where u.keycloakId = :keycloakId")
+    Optional<UserSummaryView> findSummaryByKeycloakId (@Param("keycloakId") String keycloakId);
+
+    // Pagination par curseur (keyset) : tri stable sur (createdAt, id), sans requête count(*)
+    @Query(SUMMARY_SELECT + "where u.isActive = true order by u.createdAt asc, u.id asc")
+    Slice<UserSummaryView> findFirstActiveSummaries (Pageable pageable);
+
+    @Query(SUMMARY_SELECT + """
+            where u.isActive = true
+              and (u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :id))
+            order by u.createdAt asc, u.id asc
+            """)
+    Slice<UserSummaryView> findActiveSummariesAfter (
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    // Recherche approchée servie par les index trigrammes (V1_4) ; classement par similarité décroissante.
+    // Requête native : lignes lues en Tuple puis converties par UserServiceImpl (pas de select new en SQL natif)
+    @Query(nativeQuery = true, value = """
+            select u.id as "id", u.full_name as "fullName", u.email as "email", u.telephone as "telephone",
+                   u.keycloak_id as "keycloakId", u.date_naissance as "dateNaissance", u.is_active as "isActive",
+                   u.email_verified as "emailVerified", u.phone_verified as "phoneVerified",
+                   u.profile_image_url as "profileImageUrl", u.created_at as "createdAt", u.updated_at as "updatedAt",
+                   u.version as "version"
+            from users u
+            where u.is_deleted = false
+              and u.is_active = true
+              and (lower(u.full_name) like :pattern escape '!'
+                   or lower(u.email) like :pattern escape '!'
+                   or u.telephone like :pattern escape '!')
+            order by greatest(similarity(lower(u.full_name), :term),
+                              similarity(lower(u.email), :term),
+                              similarity(u.telephone, :term)) desc,
+                     u.full_name
+            limit :limit
+            """)
+    List<Tuple> searchActiveSummaries (
+            @Param("pattern") String pattern, @Param("term") String term, @Param("limit") int limit);
+
+    // Export en flux : curseur serveur lu par paquets de 500 lignes, dans la transaction de l'appelant
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "where u.isActive = true order by u.createdAt asc, u.id asc")
+    Stream<UserSummaryView> streamActiveSummaries ();
+
 
 }
\ No newline at end of file
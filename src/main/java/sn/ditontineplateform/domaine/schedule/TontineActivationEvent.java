@@ -0,0 +1,12 @@
+package sn.ditontineplateform.domaine.schedule;
+
+import sn.ditontineplateform.domaine.entity.Tontine;
+
+import java.util.Set;
+
+/**
+ * Tontines pas encore actives entrées dans la transaction courante (créées ou chargées), susceptibles d'y être
+ * activées. Publié une seule fois par transaction : l'ensemble continue d'être alimenté jusqu'à la validation.
+ */
+public record TontineActivationEvent(Set<Tontine> tontines) {
+}
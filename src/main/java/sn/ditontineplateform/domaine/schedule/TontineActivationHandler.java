@@ -0,0 +1,49 @@
+package sn.ditontineplateform.domaine.schedule;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.enumeration.StatutTontine;
+
+import java.util.List;
+
+/**
+ * Génère l'échéancier des tontines activées dans la transaction, juste avant sa validation : les participations
+ * créées dans la même transaction sont alors en base, et si la génération échoue (tontine non planifiable), la
+ * validation échoue et l'activation est annulée avec elle.
+ * <p>
+ * Une tontine n'est marquée planifiée ({@code statutCharge} à {@link StatutTontine#ACTIVE}) que si des cotisations
+ * ont été créées.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TontineActivationHandler {
+
+    private final TontineScheduleEngine scheduleEngine;
+    private final EntityManager entityManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTontines (TontineActivationEvent event) {
+        List<Tontine> activees = event.tontines().stream()
+                .filter(tontine -> StatutTontine.ACTIVE.equals(tontine.getStatut()))
+                .filter(tontine -> !StatutTontine.ACTIVE.equals(tontine.getStatutCharge()))
+                .toList();
+        if (activees.isEmpty()) {
+            return;
+        }
+        // L'échéancier lit les participations en JDBC : elles doivent être flushées
+        entityManager.flush();
+        for (Tontine tontine : activees) {
+            if (scheduleEngine.planifier(tontine) > 0) {
+                tontine.setStatutCharge(StatutTontine.ACTIVE);
+            } else {
+                log.debug("Tontine {} activée sans échéancier généré", tontine.getId());
+            }
+        }
+    }
+}
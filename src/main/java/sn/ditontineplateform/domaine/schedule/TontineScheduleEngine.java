@@ -0,0 +1,218 @@
+package sn.ditontineplateform.domaine.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sn.ditontineplateform.domaine.entity.CycleContribution;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.enumeration.MethodePaiement;
+import sn.ditontineplateform.domaine.enumeration.TypeTirage;
+import sn.ditontineplateform.domaine.enumeration.TypeTontine;
+import sn.ditontineplateform.domaine.repository.CycleAggregateRepository;
+import sn.ditontineplateform.exception.ExceptionFactory;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Échéancier d'une tontine classique : une cotisation attendue par participant actif et par cycle, et le jackpot de
+ * chaque cycle.
+ * <p>
+ * Le nombre de cycles est le nombre de participants actifs : chaque membre cotise à chaque cycle et reçoit le jackpot
+ * une fois. Une tontine sans participant actif, ou avec plus de participants actifs que {@code nombreMaxParticipants},
+ * n'est pas planifiable : l'activation est refusée. L'ordre des bénéficiaires suit le type de tirage (aléatoire ou position de tirage) et
+ * est enregistré dans {@code participations.position_tirage}. Le cycle {@code n} a pour échéance
+ * {@code dateDebut + (n - 1) * frequenceCotisationJours}.
+ * <p>
+ * Les lignes sont écrites en lots JDBC dans la transaction de l'appelant, sans passer par le contexte de persistance :
+ * les agrégats de cycle sont alimentés ici par un upsert groupé par cycle. Une tontine qui a déjà des cotisations
+ * n'est pas replanifiée.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TontineScheduleEngine {
+
+    private static final String ACTIVE_PARTICIPANTS_SQL = """
+            SELECT id, montant_cotisation
+            FROM participations
+            WHERE tontine_id = ? AND statut = 'ACTIVE' AND is_deleted = false
+            ORDER BY position_tirage NULLS LAST, date_acceptation NULLS LAST, date_demande, id
+            """;
+
+    private static final String ALREADY_SCHEDULED_SQL = """
+            SELECT EXISTS (SELECT 1 FROM paiements
+                           WHERE tontine_id = ? AND type_paiement = 'COTISATION' AND is_deleted = false)
+            """;
+
+    private static final String INSERT_PAIEMENT_SQL = """
+            INSERT INTO paiements (id, is_deleted, version, created_at, updated_at, participation_id, tontine_id,
+                                   montant, methode_paiement, type_paiement, statut, date_echeance, numero_cycle,
+                                   montant_penalite, jours_retard, frais_transaction, is_automatique, tentative)
+            VALUES (?, false, 0, ?, ?, ?, ?, ?, ?, 'COTISATION', 'EN_ATTENTE', ?, ?, 0, 0, 0, false, 1)
+            """;
+
+    private static final String INSERT_JACKPOT_SQL = """
+            INSERT INTO jackpots (id, is_deleted, version, created_at, updated_at, tontine_id, beneficiaire_id,
+                                  numero_cycle, montant, date_distribution, statut, frais_gestion,
+                                  penalites_deduites, montant_net, is_prioritaire, jours_notification)
+            VALUES (?, false, 0, ?, ?, ?, ?, ?, ?, ?, 'PROGRAMME', 0, 0, ?, false, 7)
+            """;
+
+    private static final String UPDATE_POSITION_SQL = "UPDATE participations SET position_tirage = ? WHERE id = ?";
+
+    private static final SecureRandom DRAW = new SecureRandom();
+
+    private record Participant(UUID participationId, BigDecimal montantCotisation) {
+    }
+
+    private record Obligation(UUID participationId, int numeroCycle, LocalDate echeance, BigDecimal montant) {
+    }
+
+    private record Distribution(UUID beneficiaireId, int numeroCycle, LocalDate date, BigDecimal montant) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CycleAggregateRepository cycleAggregateRepository;
+    private final ExceptionFactory exceptionFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tontine-schedule.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${tontine-schedule.default-payment-method:ORANGE_MONEY}")
+    private MethodePaiement defaultPaymentMethod;
+
+    /**
+     * Planifie la tontine si elle est classique et pas encore planifiée.
+     *
+     * @return le nombre de cotisations créées, 0 pour une tontine non classique ou déjà planifiée
+     * @throws sn.ditontineplateform.exception.ValidationException si les participants actifs ne permettent pas de
+     *                                                            planifier
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int planifier (Tontine tontine) {
+        if (!TypeTontine.CLASSIQUE.equals(tontine.getType())) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        UUID tontineId = tontine.getId();
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(ALREADY_SCHEDULED_SQL, Boolean.class, tontineId))) {
+            log.info("Tontine {} déjà planifiée, échéancier conservé", tontineId);
+            return 0;
+        }
+        verifierParametres(tontine);
+
+        List<Participant> participants = beneficiairesOrdonnes(tontine);
+        int cycles = participants.size();
+        if (cycles == 0) {
+            throw exceptionFactory.validationError(
+                    "participations", null, "Une tontine classique ne peut être activée sans participant actif");
+        }
+        if (cycles > tontine.getNombreMaxParticipants()) {
+            // Les membres en surnombre cotiseraient à chaque cycle sans jamais recevoir de jackpot
+            throw exceptionFactory.validationError("nombreMaxParticipants",
+                    String.valueOf(tontine.getNombreMaxParticipants()),
+                    MessageFormat.format("{0} participants actifs pour {1} places", cycles,
+                            tontine.getNombreMaxParticipants()));
+        }
+
+        List<Obligation> obligations = new ArrayList<>(cycles * participants.size());
+        List<Distribution> distributions = new ArrayList<>(cycles);
+        List<CycleContribution> attendus = new ArrayList<>(cycles);
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            LocalDate echeance = tontine.getDateDebut().plusDays((long) (cycle - 1) * tontine.getFrequenceCotisationJours());
+            BigDecimal totalCycle = BigDecimal.ZERO;
+            for (Participant participant : participants) {
+                BigDecimal montant = participant.montantCotisation() != null
+                        ? participant.montantCotisation()
+                        : tontine.getMontantCotisation();
+                obligations.add(new Obligation(participant.participationId(), cycle, echeance, montant));
+                totalCycle = totalCycle.add(montant);
+            }
+            distributions.add(new Distribution(participants.get(cycle - 1).participationId(), cycle, echeance, totalCycle));
+            attendus.add(new CycleContribution(
+                    tontineId, cycle, totalCycle, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PAIEMENT_SQL, obligations, batchSize, (ps, obligation) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setObject(4, obligation.participationId());
+            ps.setObject(5, tontineId);
+            ps.setBigDecimal(6, obligation.montant());
+            ps.setString(7, defaultPaymentMethod.name());
+            ps.setDate(8, Date.valueOf(obligation.echeance()));
+            ps.setInt(9, obligation.numeroCycle());
+        });
+        jdbcTemplate.batchUpdate(INSERT_JACKPOT_SQL, distributions, batchSize, (ps, distribution) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setTimestamp(2, now);
+            ps.setTimestamp(3, now);
+            ps.setObject(4, tontineId);
+            ps.setObject(5, distribution.beneficiaireId());
+            ps.setInt(6, distribution.numeroCycle());
+            ps.setBigDecimal(7, distribution.montant());
+            ps.setDate(8, Date.valueOf(distribution.date()));
+            ps.setBigDecimal(9, distribution.montant());
+        });
+        jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, distributions, batchSize, (ps, distribution) -> {
+            ps.setInt(1, distribution.numeroCycle());
+            ps.setObject(2, distribution.beneficiaireId());
+        });
+        cycleAggregateRepository.appliquerTous(attendus);
+
+        long nanos = sample.stop(Timer.builder("tontine.schedule.duration")
+                .description("Durée de génération de l'échéancier d'une tontine")
+                .register(meterRegistry));
+        log.info("Tontine {} planifiée : {} cycles, {} cotisations, {} jackpots en {} ms",
+                tontineId, cycles, obligations.size(), distributions.size(), nanos / 1_000_000);
+        return obligations.size();
+    }
+
+    private void verifierParametres (Tontine tontine) {
+        if (tontine.getDateDebut() == null) {
+            throw exceptionFactory.validationError("dateDebut", null, "La date de début est requise pour planifier");
+        }
+        if (tontine.getFrequenceCotisationJours() == null) {
+            throw exceptionFactory.validationError(
+                    "frequenceCotisationJours", null, "La fréquence de cotisation est requise pour planifier");
+        }
+        if (tontine.getMontantCotisation() == null) {
+            throw exceptionFactory.validationError(
+                    "montantCotisation", null, "Le montant de cotisation est requis pour planifier");
+        }
+    }
+
+    /**
+     * Participants actifs dans l'ordre de réception du jackpot : tirés au sort pour un tirage aléatoire, sinon dans
+     * l'ordre des positions de tirage puis des dates d'acceptation.
+     */
+    private List<Participant> beneficiairesOrdonnes (Tontine tontine) {
+        List<Participant> participants = new ArrayList<>(jdbcTemplate.query(ACTIVE_PARTICIPANTS_SQL,
+                (rs, rowNum) -> new Participant(
+                        rs.getObject("id", UUID.class), rs.getBigDecimal("montant_cotisation")),
+                tontine.getId()));
+        if (TypeTirage.ALEATOIRE.equals(tontine.getTypeTirage())) {
+            Collections.shuffle(participants, DRAW);
+        }
+        return participants;
+    }
+}
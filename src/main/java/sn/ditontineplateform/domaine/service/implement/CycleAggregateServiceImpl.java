@@ -0,0 +1,49 @@
+package sn.ditontineplateform.domaine.service.implement;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import sn.ditontineplateform.domaine.dto.CycleAggregateDto;
+import sn.ditontineplateform.domaine.repository.CycleAggregateRepository;
+import sn.ditontineplateform.domaine.service.interfaces.CycleAggregateService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CycleAggregateServiceImpl implements CycleAggregateService {
+
+    private final CycleAggregateRepository cycleAggregateRepository;
+
+    @Override
+    public List<CycleAggregateDto> getAggregats (UUID tontineId) {
+        return cycleAggregateRepository.findByTontine(tontineId);
+    }
+
+    @Override
+    public Optional<CycleAggregateDto> getAggregat (UUID tontineId, int numeroCycle) {
+        return cycleAggregateRepository.findCycle(tontineId, numeroCycle);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruire (UUID tontineId) {
+        int cycles = cycleAggregateRepository.reconstruire(tontineId);
+        log.info("Agrégats de cycle reconstruits pour la tontine {} : {} cycles", tontineId, cycles);
+        return cycles;
+    }
+
+    @Override
+    @Transactional
+    public int reconstruireTout () {
+        long start = System.nanoTime();
+        int cycles = cycleAggregateRepository.reconstruireTout();
+        log.info("Agrégats de cycle reconstruits : {} cycles en {} ms",
+                cycles, (System.nanoTime() - start) / 1_000_000);
+        return cycles;
+    }
+}
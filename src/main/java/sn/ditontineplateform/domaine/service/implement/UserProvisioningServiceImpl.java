@@ -0,0 +1,387 @@
+package sn.ditontineplateform.domaine.service.implement;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import sn.ditontineplateform.domaine.dto.UserBatchReportDto;
+import sn.ditontineplateform.domaine.dto.UserBatchResultDto;
+import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserImportReportDto;
+import sn.ditontineplateform.domaine.entity.User;
+import sn.ditontineplateform.domaine.repository.UserBatchWriter;
+import sn.ditontineplateform.domaine.service.interfaces.UserProvisioningService;
+import sn.ditontineplateform.exception.BaseCustomException;
+import sn.ditontineplateform.exception.ErrorCode;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.security.service.interfaces.AuthService;
+import sn.ditontineplateform.utils.CsvReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Création d'utilisateurs par lot. Chaque utilisateur est d'abord validé contre les contraintes de l'entité
+ * {@code User} ; les comptes Keycloak des utilisateurs valides sont créés en parallèle sur des threads virtuels
+ * (concurrence bornée, le bulkhead Keycloak restant la limite finale), puis leurs lignes locales sont écrites en JDBC
+ * par lots ({@link UserBatchWriter}) dans une seule transaction.
+ * <p>
+ * Un compte Keycloak dont la ligne locale n'a pas pu être écrite est supprimé aussitôt : le rapport ne cite
+ * l'identifiant externe d'une ligne en échec que si cette suppression a elle-même échoué.
+ * <p>
+ * L'import CSV suit le même chemin par paquets de taille fixe : le fichier est lu en flux et seuls le paquet courant
+ * et les lignes en échec sont gardés en mémoire.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    private final AuthService authService;
+    private final ExceptionFactory exceptionFactory;
+    private final UserBatchWriter userBatchWriter;
+
+    // Le mot de passe est détenu par Keycloak ; la colonne locale (non nulle) ne reçoit qu'un marqueur
+    private static final String KEYCLOAK_MANAGED_PASSWORD = "{keycloak}";
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^(\\+221|00221)?[0-9]{9}$");
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("username", "password", "firstname", "lastname", "email", "phonenumber");
+
+    @Value("${user-provisioning.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${user-provisioning.batch.concurrency:8}")
+    private int concurrency;
+
+    @Value("${user-provisioning.import.chunk-size:200}")
+    private int importChunkSize;
+
+    @Value("${user-provisioning.import.max-reported-failures:1000}")
+    private int maxReportedFailures;
+
+    @Override
+    public UserBatchReportDto createUsers (List<UserDto> users) {
+        if (users == null || users.isEmpty()) {
+            throw exceptionFactory.validationError("users", null, "Le lot d'utilisateurs est vide");
+        }
+        if (users.size() > maxBatchSize) {
+            throw exceptionFactory.validationError(
+                    "users", String.valueOf(users.size()), "Le lot dépasse " + maxBatchSize + " utilisateurs");
+        }
+
+        UserBatchResultDto[] results = new UserBatchResultDto[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            UserDto dto = users.get(i);
+            String error = dto == null ? "Utilisateur manquant" : validate(normalize(dto));
+            if (error != null) {
+                results[i] = result(i, dto == null ? new UserDto() : dto, UserBatchResultDto.Status.FAILED)
+                        .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
+                        .message(error)
+                        .build();
+            }
+        }
+        createKeycloakAccounts(users, results);
+        persistAccounts(users, results);
+
+        UserBatchReportDto report = UserBatchReportDto.of(List.of(results));
+        log.info("Lot d'utilisateurs traité : {} créés, {} en échec", report.getCreated(), report.getFailed());
+        return report;
+    }
+
+    @Override
+    public UserImportReportDto importUsers (InputStream csv, char separator) {
+        UserImportReportDto report = new UserImportReportDto(maxReportedFailures);
+        try (CsvReader reader = new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8), separator)) {
+            Map<String, Integer> columns = readHeader(reader);
+            List<UserDto> chunk = new ArrayList<>(importChunkSize);
+            List<Integer> rows = new ArrayList<>(importChunkSize);
+            int row = 0;
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = reader.next();
+                } catch (IOException e) {
+                    // Ligne mal formée : les lignes précédentes sont importées, la suite du fichier est ignorée
+                    report.add(UserBatchResultDto.builder()
+                            .index(row + 1)
+                            .status(UserBatchResultDto.Status.FAILED)
+                            .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
+                            .message("Import interrompu : " + e.getMessage())
+                            .build());
+                    break;
+                }
+                if (fields == null) {
+                    break;
+                }
+                if (fields.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                row++;
+                UserDto dto = toDto(fields, columns);
+                String error = parseDateOfBirth(dto, field(fields, columns, "dateofbirth"));
+                if (error == null) {
+                    error = validate(dto);
+                }
+                if (error != null) {
+                    report.add(result(row, dto, UserBatchResultDto.Status.FAILED)
+                            .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
+                            .message(error)
+                            .build());
+                    continue;
+                }
+                chunk.add(dto);
+                rows.add(row);
+                if (chunk.size() >= importChunkSize) {
+                    importChunk(chunk, rows, report);
+                    chunk.clear();
+                    rows.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, rows, report);
+            }
+        } catch (IOException e) {
+            throw exceptionFactory.validationError("file", null, "Fichier CSV illisible : " + e.getMessage());
+        }
+
+        log.info("Import CSV terminé : {} lignes, {} créées, {} en échec",
+                report.getTotal(), report.getCreated(), report.getFailed());
+        return report;
+    }
+
+    private Map<String, Integer> readHeader (CsvReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw exceptionFactory.validationError("file", null, "Le fichier CSV est vide");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Les exports Excel commencent souvent par un BOM UTF-8
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw exceptionFactory.validationError(
+                    "header", String.join(",", header), "Colonnes manquantes : " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static UserDto toDto (List<String> fields, Map<String, Integer> columns) {
+        UserDto dto = new UserDto();
+        dto.setUsername(field(fields, columns, "username"));
+        dto.setPassword(field(fields, columns, "password"));
+        dto.setFirstName(field(fields, columns, "firstname"));
+        dto.setLastName(field(fields, columns, "lastname"));
+        dto.setEmail(field(fields, columns, "email"));
+        dto.setPhoneNumber(field(fields, columns, "phonenumber"));
+        dto.setGender(field(fields, columns, "gender"));
+        return normalize(dto);
+    }
+
+    /**
+     * Email en minuscules, comme le stockent Keycloak et le miroir local.
+     */
+    private static UserDto normalize (UserDto dto) {
+        if (dto.getEmail() != null) {
+            dto.setEmail(dto.getEmail().trim().toLowerCase(Locale.ROOT));
+        }
+        return dto;
+    }
+
+    private static String field (List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Lit la date de naissance, facultative, d'une ligne importée au format ISO (AAAA-MM-JJ) et la reporte dans le DTO.
+     *
+     * @return le message d'erreur, ou {@code null} si la date est absente ou valide
+     */
+    private static String parseDateOfBirth (UserDto dto, String dateOfBirth) {
+        if (dateOfBirth == null) {
+            return null;
+        }
+        try {
+            dto.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            return null;
+        } catch (DateTimeParseException e) {
+            return "Date de naissance invalide (format AAAA-MM-JJ attendu)";
+        }
+    }
+
+    /**
+     * Applique à un utilisateur les contraintes de l'entité {@code User} (nom, email, téléphone, date de naissance) et
+     * celles de Keycloak (identifiant, mot de passe), avant toute création de compte.
+     *
+     * @return le message d'erreur, ou {@code null} si l'utilisateur est valide
+     */
+    private static String validate (UserDto dto) {
+        if (dto.getUsername() == null || dto.getUsername().isBlank()) {
+            return "Le nom d'utilisateur est requis";
+        }
+        if (dto.getPassword() == null || dto.getPassword().length() < 8) {
+            return "Le mot de passe doit contenir au moins 8 caractères";
+        }
+        String fullName = fullName(dto);
+        if (fullName.length() < 2 || fullName.length() > 100) {
+            return "Le nom doit contenir entre 2 et 100 caractères";
+        }
+        if (dto.getEmail() == null || dto.getEmail().length() > 100 || !EMAIL_PATTERN.matcher(dto.getEmail()).matches()) {
+            return "Format d'email invalide";
+        }
+        if (dto.getPhoneNumber() == null || !PHONE_PATTERN.matcher(dto.getPhoneNumber()).matches()) {
+            return "Format de téléphone invalide";
+        }
+        if (dto.getDateOfBirth() != null && !dto.getDateOfBirth().isBefore(LocalDate.now())) {
+            return "La date de naissance doit être dans le passé";
+        }
+        return null;
+    }
+
+    private static String fullName (UserDto dto) {
+        String firstName = dto.getFirstName() == null ? "" : dto.getFirstName();
+        String lastName = dto.getLastName() == null ? "" : dto.getLastName();
+        return (firstName + " " + lastName).trim();
+    }
+
+    private void importChunk (List<UserDto> chunk, List<Integer> rows, UserImportReportDto report) {
+        UserBatchResultDto[] results = new UserBatchResultDto[chunk.size()];
+        createKeycloakAccounts(chunk, results);
+        persistAccounts(chunk, results);
+        for (int i = 0; i < results.length; i++) {
+            results[i].setIndex(rows.get(i));
+            report.add(results[i]);
+        }
+    }
+
+    /**
+     * Crée les comptes Keycloak des utilisateurs qui n'ont pas encore de résultat (les lignes invalides en ont déjà
+     * un).
+     */
+    private void createKeycloakAccounts (List<UserDto> users, UserBatchResultDto[] results) {
+        Semaphore permits = new Semaphore(Math.max(1, concurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users.size(); i++) {
+                if (results[i] != null) {
+                    continue;
+                }
+                int index = i;
+                UserDto dto = users.get(i);
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        dto.setExternalId(authService.createKeycloakUser(dto));
+                        results[index] = result(index, dto, UserBatchResultDto.Status.CREATED).build();
+                    } catch (Exception e) {
+                        results[index] = failure(index, dto, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Insère en un lot JDBC les utilisateurs créés dans Keycloak. Si l'insertion groupée échoue, chaque ligne est
+     * rejouée seule pour isoler les lignes fautives ; le compte Keycloak d'une ligne fautive est supprimé.
+     */
+    private void persistAccounts (List<UserDto> users, UserBatchResultDto[] results) {
+        List<Integer> indexes = new ArrayList<>();
+        List<User> entities = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            if (results[i].getStatus() == UserBatchResultDto.Status.CREATED) {
+                indexes.add(i);
+                entities.add(toEntity(users.get(i)));
+            }
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<UUID> ids = userBatchWriter.insertAll(entities);
+            for (int i = 0; i < ids.size(); i++) {
+                results[indexes.get(i)].setUserId(ids.get(i));
+            }
+        } catch (Exception batchError) {
+            log.warn("Insertion JDBC groupée impossible, reprise ligne par ligne : {}", batchError.getMessage());
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                try {
+                    results[index].setUserId(userBatchWriter.insert(entities.get(i)));
+                } catch (Exception e) {
+                    UserDto dto = users.get(index);
+                    removeKeycloakAccount(dto);
+                    results[index] = failure(index, dto, e);
+                }
+            }
+        }
+    }
+
+    private static User toEntity (UserDto dto) {
+        User user = new User();
+        user.setFullName(fullName(dto));
+        user.setEmail(dto.getEmail());
+        user.setTelephone(dto.getPhoneNumber());
+        user.setMotDePasse(KEYCLOAK_MANAGED_PASSWORD);
+        user.setDateNaissance(dto.getDateOfBirth());
+        user.setKeycloakId(dto.getExternalId());
+        return user;
+    }
+
+    /**
+     * Annule la création Keycloak d'un utilisateur dont la ligne locale n'a pas pu être écrite. Si la suppression
+     * échoue, l'identifiant externe reste dans le rapport pour un nettoyage manuel.
+     */
+    private void removeKeycloakAccount (UserDto dto) {
+        try {
+            authService.deleteKeycloakUser(dto.getExternalId());
+            dto.setExternalId(null);
+        } catch (Exception e) {
+            log.error("Compte Keycloak {} ({}) orphelin, suppression impossible après l'échec de l'insertion : {}",
+                    dto.getExternalId(), dto.getUsername(), e.getMessage());
+        }
+    }
+
+    private static UserBatchResultDto.UserBatchResultDtoBuilder result (
+            int index, UserDto dto, UserBatchResultDto.Status status) {
+        return UserBatchResultDto.builder()
+                .index(index)
+                .username(dto.getUsername())
+                .email(dto.getEmail())
+                .externalId(dto.getExternalId())
+                .status(status);
+    }
+
+    private static UserBatchResultDto failure (int index, UserDto dto, Exception e) {
+        UserBatchResultDto.UserBatchResultDtoBuilder builder = result(index, dto, UserBatchResultDto.Status.FAILED);
+        if (e instanceof BaseCustomException custom) {
+            return builder.errorCode(custom.getErrorCode().getCode()).message(custom.getMessage()).build();
+        }
+        log.error("Échec de création de l'utilisateur {} : {}", dto.getUsername(), e.getMessage());
+        return builder.errorCode(ErrorCode.INTERNAL_SERVER_ERROR.getCode()).message(e.getMessage()).build();
+    }
+}
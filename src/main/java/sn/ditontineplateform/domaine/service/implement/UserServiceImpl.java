@@ -1,21 +1,48 @@
 package sn.ditontineplateform.domaine.service.implement;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Tuple;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import sn.ditontineplateform.domaine.cache.UserCache;
 import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.domaine.dto.UserCursor;
 import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
 import sn.ditontineplateform.domaine.entity.User;
+import sn.ditontineplateform.domaine.enumeration.UserSearchMode;
 import sn.ditontineplateform.domaine.mapper.LocationMapper;
 import sn.ditontineplateform.domaine.repository.UserRepository;
 import sn.ditontineplateform.domaine.service.interfaces.UserService;
+import sn.ditontineplateform.domaine.transaction.OptimisticRetry;
+import sn.ditontineplateform.security.cache.KeycloakRoleCache;
+import sn.ditontineplateform.utils.CsvWriter;
+import sn.ditontineplateform.utils.EntityTags;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -25,6 +52,15 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final LocationMapper locationMapper;
     private final ExceptionFactory exceptionFactory;
+    private final KeycloakRoleCache keycloakRoleCache;
+    private final MeterRegistry meterRegistry;
+    private final UserCache userCache;
+    private final OptimisticRetry optimisticRetry;
+
+    @Value("${user-api.require-if-match:false}")
+    private boolean requireIfMatch;
+
+    private static final int MIN_SEARCH_LENGTH = 2;
 
     @Override
     public Page<User> getAllUsers (Pageable pageable) {
@@ -32,18 +68,118 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Optional<User> getUserById (UUID id) {
-        return userRepository.findByUserIdAndIsActiveTrue(id);
+    public Page<UserSummaryView> getUserSummaries (Pageable pageable) {
+        return userRepository.findActiveSummaries(pageable);
+    }
+
+    @Override
+    public Slice<UserSummaryView> getActiveUsersAfter (String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        if (cursor == null || cursor.isBlank()) {
+            return userRepository.findFirstActiveSummaries(pageable);
+        }
+        UserCursor position;
+        try {
+            position = UserCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw exceptionFactory.validationError("cursor", cursor, "Curseur de pagination invalide");
+        }
+        return userRepository.findActiveSummariesAfter(position.createdAt(), position.id(), pageable);
+    }
+
+    @Override
+    public List<UserSummaryView> searchUsers (String query, String mode, int limit) {
+        UserSearchMode searchMode;
+        try {
+            searchMode = UserSearchMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw exceptionFactory.validationError("mode", mode, "Mode de recherche inconnu (prefix ou infix)");
+        }
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_SEARCH_LENGTH) {
+            throw exceptionFactory.validationError(
+                    "q", query, "La recherche doit contenir au moins " + MIN_SEARCH_LENGTH + " caractères");
+        }
+        String escaped = term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        String pattern = searchMode == UserSearchMode.PREFIX ? escaped + "%" : "%" + escaped + "%";
+
+        return Timer.builder("users.search")
+                .description("Durée des recherches d'utilisateurs")
+                .tag("mode", searchMode.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(() -> userRepository.searchActiveSummaries(pattern, term, limit).stream()
+                        .map(UserServiceImpl::toSummary)
+                        .toList());
+    }
+
+    // Le pilote renvoie java.sql.Date / Timestamp pour les colonnes date d'une requête native
+    private static UserSummaryView toSummary (Tuple row) {
+        return new UserSummaryView(
+                row.get("id", UUID.class),
+                row.get("fullName", String.class),
+                row.get("email", String.class),
+                row.get("telephone", String.class),
+                row.get("keycloakId", String.class),
+                toLocalDate(row.get("dateNaissance")),
+                row.get("isActive", Boolean.class),
+                row.get("emailVerified", Boolean.class),
+                row.get("phoneVerified", Boolean.class),
+                row.get("profileImageUrl", String.class),
+                toLocalDateTime(row.get("createdAt")),
+                toLocalDateTime(row.get("updatedAt")),
+                row.get("version", Long.class));
+    }
+
+    private static LocalDate toLocalDate (Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime (Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    @Override
+    @Transactional
+    public long exportUsers (OutputStream output) {
+        long count = 0;
+        CsvWriter writer = new CsvWriter(
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)), ',');
+        try (Stream<UserSummaryView> users = userRepository.streamActiveSummaries()) {
+            writer.writeRow("userId", "fullName", "email", "phoneNumber", "externalId", "dateOfBirth",
+                    "emailVerified", "phoneVerified", "createdAt");
+            Iterator<UserSummaryView> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserSummaryView user = iterator.next();
+                writer.writeRow(user.getId(), user.getFullName(), user.getEmail(), user.getTelephone(),
+                        user.getKeycloakId(), user.getDateNaissance(), user.getEmailVerified(),
+                        user.getPhoneVerified(), user.getCreatedAt());
+                count++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // Le plus souvent, le client a interrompu le téléchargement
+            throw new UncheckedIOException(e);
+        }
+        log.info("Export CSV terminé : {} utilisateurs", count);
+        return count;
     }
 
     @Override
-    public Optional<User> getUserByEmail (String email) {
-        return userRepository.findByEmail(email);
+    public Optional<UserSummaryView> getUserById (UUID id) {
+        // Une entrée mise en cache par email ou identifiant Keycloak peut concerner un utilisateur désactivé
+        return userCache.getById(id, () -> userRepository.findActiveSummaryById(id))
+                .filter(u -> Boolean.TRUE.equals(u.getIsActive()));
     }
 
     @Override
-    public Optional<User> getUserByKeycloakId (String keycloakId) {
-        return userRepository.findByExternalId(keycloakId);
+    public Optional<UserSummaryView> getUserByEmail (String email) {
+        return userCache.getByEmail(email, () -> userRepository.findSummaryByEmail(email));
+    }
+
+    @Override
+    public Optional<UserSummaryView> getUserByKeycloakId (String keycloakId) {
+        return userCache.getByExternalId(keycloakId, () -> userRepository.findSummaryByKeycloakId(keycloakId));
     }
 
     @Override
@@ -60,34 +196,35 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
     public void deleteUser (UUID id) {
-        userRepository
+        optimisticRetry.run(User.class, () -> userRepository
                 .findByUserIdAndIsActiveTrue(id)
                 .ifPresentOrElse(
                         user -> {
                             user.setActive(false);
                             user.setUpdatedAt(new Date().toInstant());
                             userRepository.save(user);
+                            userCache.evict(user);
+                            keycloakRoleCache.invalidate(user.getExternalId());
                             log.info("User logically deleted: {}", id);
                         },
                         () -> {
                             log.warn("User not found for deletion: {}", id);
                             throw exceptionFactory.userNotFound(id.toString());
                         }
-                );
+                ));
     }
 
     @Override
-    @Transactional
     public User activateUser (UUID id) {
-        return userRepository
+        return optimisticRetry.execute(User.class, () -> userRepository
                 .findById(id)
                 .filter(user -> !user.isActive())
                 .map(
                         user -> {
                             user.setActive(true);
                             user.setUpdatedAt(new Date().toInstant());
+                            userCache.evict(user);
                             log.info("User activated: {}", id);
                             return userRepository.save(user);
                         })
@@ -95,16 +232,23 @@ public class UserServiceImpl implements UserService {
                         () -> {
                             log.warn("User not found or already active: {}", id);
                             return exceptionFactory.userNotFound(id.toString());
-                        });
+                        }));
     }
 
     @Override
-    @Transactional
-    public User updateUser (UUID id, UserDto dto) {
-        return userRepository
+    public User updateUser (UUID id, UserDto dto, String ifMatch) {
+        if (ifMatch == null && requireIfMatch) {
+            throw exceptionFactory.preconditionRequired("If-Match");
+        }
+        return optimisticRetry.execute(User.class, () -> userRepository
                 .findByUserIdAndIsActiveTrue(id)
                 .map(
                         user -> {
+                            if (ifMatch != null && !EntityTags.matches(ifMatch, user.getVersion())) {
+                                throw exceptionFactory.userModified(id, ifMatch);
+                            }
+                            // Anciennes clés (email, ...) avant modification, nouvelles clés après
+                            userCache.evict(user);
                             user.setFirstName(dto.getFirstName());
                             user.setLastName(dto.getLastName());
                             user.setEmail(dto.getEmail());
@@ -114,13 +258,15 @@ public class UserServiceImpl implements UserService {
                             user.setLocation(locationMapper.toEntity(dto.getLocation()));
                             user.setUpdatedAt(new Date().toInstant());
                             log.info("Updating user: {}", id);
-                            return userRepository.save(user);
+                            User saved = userRepository.save(user);
+                            userCache.evict(saved);
+                            return saved;
                         })
                 .orElseThrow(
                         () -> {
                             log.warn("User not found for update: {}", id);
                             return exceptionFactory.userNotFound(id.toString());
-                        });
+                        }));
     }
 
 
@@ -0,0 +1,34 @@
+package sn.ditontineplateform.domaine.service.interfaces;
+
+import sn.ditontineplateform.domaine.dto.CycleAggregateDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lecture et reconstruction des agrégats de cotisation par cycle, tenus à jour au fil des paiements.
+ */
+public interface CycleAggregateService {
+
+    /**
+     * Agrégats de tous les cycles d'une tontine, par numéro de cycle croissant.
+     */
+    List<CycleAggregateDto> getAggregats (UUID tontineId);
+
+    Optional<CycleAggregateDto> getAggregat (UUID tontineId, int numeroCycle);
+
+    /**
+     * Recalcule les agrégats d'une tontine depuis les paiements.
+     *
+     * @return le nombre de cycles agrégés
+     */
+    int reconstruire (UUID tontineId);
+
+    /**
+     * Recalcule les agrégats de toutes les tontines depuis les paiements.
+     *
+     * @return le nombre de cycles agrégés
+     */
+    int reconstruireTout ();
+}
@@ -0,0 +1,29 @@
+package sn.ditontineplateform.domaine.service.interfaces;
+
+import sn.ditontineplateform.domaine.dto.UserBatchReportDto;
+import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserImportReportDto;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface UserProvisioningService {
+
+    /**
+     * Crée un lot d'utilisateurs dans Keycloak puis en base. Une ligne en échec n'interrompt pas les autres.
+     *
+     * @param users les utilisateurs à créer
+     * @return le rapport ligne par ligne
+     */
+    UserBatchReportDto createUsers (List<UserDto> users);
+
+    /**
+     * Importe des utilisateurs depuis un CSV lu en flux, par paquets de taille fixe. La première ligne est l'en-tête
+     * (noms des champs de {@link UserDto}) ; une ligne invalide ou en échec n'interrompt pas l'import.
+     *
+     * @param csv       le contenu CSV encodé en UTF-8
+     * @param separator le séparateur de champs
+     * @return le total des lignes traitées et le détail des lignes en échec
+     */
+    UserImportReportDto importUsers (InputStream csv, char separator);
+}
@@ -2,9 +2,13 @@ package sn.ditontineplateform.domaine.service.interfaces;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
 import sn.ditontineplateform.domaine.entity.User;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,20 +23,56 @@ public interface UserService {
     Page<User> getAllUsers (Pageable pageable);
 
     /**
-     * Récupère un utilisateur par son identifiant.
+     * Récupère une page d'utilisateurs actifs, limitée aux colonnes exposées par l'API.
+     *
+     * @param pageable les informations de pagination
+     * @return une page de projections d'utilisateurs
+     */
+    Page<UserSummaryView> getUserSummaries (Pageable pageable);
+
+    /**
+     * Récupère les utilisateurs actifs situés après le curseur, sans calcul du nombre total.
+     *
+     * @param cursor le jeton de la page précédente, ou null pour la première page
+     * @param size   le nombre d'utilisateurs à retourner
+     * @return une tranche d'utilisateurs triés par date de création puis identifiant
+     */
+    Slice<UserSummaryView> getActiveUsersAfter (String cursor, int size);
+
+    /**
+     * Recherche des utilisateurs actifs par fragment de nom, d'email ou de téléphone.
+     *
+     * @param query le fragment recherché (au moins deux caractères)
+     * @param mode  {@code prefix} (début de champ) ou {@code infix} (n'importe où dans le champ)
+     * @param limit le nombre maximal de résultats
+     * @return les utilisateurs trouvés, du plus au moins similaire
+     */
+    List<UserSummaryView> searchUsers (String query, String mode, int limit);
+
+    /**
+     * Écrit les utilisateurs actifs au format CSV (UTF-8), en flux, sans charger l'ensemble en mémoire.
+     *
+     * @param output le flux de sortie, laissé ouvert
+     * @return le nombre d'utilisateurs exportés
+     */
+    long exportUsers (OutputStream output);
+
+    /**
+     * Récupère un utilisateur actif par son identifiant, limité aux colonnes exposées par l'API. Servi par le cache
+     * des profils.
      *
      * @param id l'identifiant de l'utilisateur
-     * @return l'utilisateur trouvé ou un Optional vide
+     * @return la projection de l'utilisateur ou un Optional vide
      */
-    Optional<User> getUserById (UUID id);
+    Optional<UserSummaryView> getUserById (UUID id);
 
     /**
-     * Récupère un utilisateur par son identifiant.
+     * Récupère un utilisateur par son identifiant Keycloak. Servi par le cache des profils.
      *
-     * @param keycloakId l'identifiant de l'utilisateur
-     * @return l'utilisateur trouvé ou un Optional vide
+     * @param keycloakId l'identifiant Keycloak de l'utilisateur
+     * @return la projection de l'utilisateur ou un Optional vide
      */
-    Optional<User> getUserByExternalId (String keycloakId);
+    Optional<UserSummaryView> getUserByKeycloakId (String keycloakId);
 
     /**
      * Crée un nouvel utilisateur.
@@ -60,7 +100,18 @@ public interface UserService {
 
     User activateUser (UUID id);
 
-    User updateUser (UUID id, UserDto dto);
+    /**
+     * Met à jour un utilisateur actif.
+     *
+     * @param ifMatch en-tête {@code If-Match} de la requête, {@code null} s'il est absent ; comparé à l'ETag de
+     *                l'utilisateur dans la même transaction que la modification
+     * @throws sn.ditontineplateform.exception.BaseCustomException {@code USER_009} (412) si l'utilisateur a été
+     *                                                             modifié depuis la lecture
+     */
+    User updateUser (UUID id, UserDto dto, String ifMatch);
 
-    Optional<User> getUserByEmail (String email);
+    /**
+     * Récupère un utilisateur par son email. Servi par le cache des profils.
+     */
+    Optional<UserSummaryView> getUserByEmail (String email);
 }
\ No newline at end of file
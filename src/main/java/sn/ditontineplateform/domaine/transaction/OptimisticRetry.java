@@ -0,0 +1,116 @@
+package sn.ditontineplateform.domaine.transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.utils.RequestDeadline;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Exécute une unité de travail transactionnelle et la rejoue en cas de conflit de version ({@code @Version} de
+ * {@code BaseEntity}).
+ * <p>
+ * Chaque tentative ouvre sa propre transaction : l'entité est relue dans sa version courante et la modification
+ * réappliquée. Entre deux tentatives, l'attente suit un backoff exponentiel à jitter complet, borné par l'échéance de
+ * la requête ({@link RequestDeadline}). Appelée depuis une transaction déjà ouverte, l'unité n'est exécutée qu'une
+ * fois : le conflit remonte à la frontière transactionnelle englobante, seule à pouvoir rejouer.
+ * <p>
+ * Les conflits sont comptés par type d'entité ({@code entity.optimistic_lock.conflicts}), selon qu'ils ont été
+ * résolus par un nouvel essai ou ont épuisé les tentatives ; dans ce dernier cas l'appelant reçoit
+ * {@link ExceptionFactory#concurrentModification(String)} (409).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExceptionFactory exceptionFactory;
+
+    @Value("${optimistic-lock.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${optimistic-lock.retry.initial-backoff:PT0.02S}")
+    private Duration initialBackoff;
+
+    @Value("${optimistic-lock.retry.max-backoff:PT0.5S}")
+    private Duration maxBackoff;
+
+    public void run (Class<?> entityType, Runnable work) {
+        execute(entityType, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T execute (Class<?> entityType, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                String entity = entityName(entityType, e);
+                Duration backoff = backoff(attempt);
+                if (attempt >= maxAttempts || RequestDeadline.cap(backoff).compareTo(backoff) < 0) {
+                    conflicts(entity, "exhausted").increment();
+                    log.warn("Conflit de version persistant sur {} après {} tentative(s)", entity, attempt);
+                    throw exceptionFactory.concurrentModification(entity);
+                }
+                conflicts(entity, "retried").increment();
+                log.debug("Conflit de version sur {}, nouvelle tentative dans {} ms", entity, backoff.toMillis());
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Backoff exponentiel à jitter complet : tirage uniforme entre zéro et {@code initial * 2^(tentative - 1)}, borné
+     * par {@code max-backoff}. Les écrivains en conflit se désynchronisent au lieu de se heurter à nouveau.
+     */
+    private Duration backoff (int attempt) {
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 20));
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(Math.max(1, ceiling)));
+    }
+
+    private static void sleep (Duration backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu pendant l'attente d'un nouvel essai", e);
+        }
+    }
+
+    private static String entityName (Class<?> entityType, RuntimeException conflict) {
+        if (conflict instanceof ObjectOptimisticLockingFailureException objectConflict
+                && objectConflict.getPersistentClassName() != null) {
+            String className = objectConflict.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return entityType.getSimpleName();
+    }
+
+    private Counter conflicts (String entity, String outcome) {
+        return Counter.builder("entity.optimistic_lock.conflicts")
+                .description("Conflits de version rencontrés lors des mises à jour")
+                .tag("entity", entity)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -2,10 +2,10 @@ package sn.ditontineplateform.exception;
 
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
+import sn.ditontineplateform.utils.TraceIds;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Getter
 public abstract class BaseCustomException extends RuntimeException {
@@ -22,7 +22,7 @@ public abstract class BaseCustomException extends RuntimeException {
         this.developerMessage = developerMessage;
         this.httpStatus = httpStatus != null ? httpStatus : HttpStatus.INTERNAL_SERVER_ERROR;
         this.additionalData = additionalData != null ? additionalData : new HashMap<>();
-        this.traceId = UUID.randomUUID().toString().substring(0, 8);
+        this.traceId = TraceIds.current();
     }
 
     protected BaseCustomException(ErrorCode errorCode, String userMessage, String developerMessage, HttpStatus httpStatus) {
@@ -23,6 +23,7 @@ public enum ErrorCode {
   USER_EMAIL_NOT_FOUND("USER_006", "Aucun compte associé à cette adresse email"),
   USER_INVALID_ROLE("USER_007", "L'utilisateur n'a pas le rôle requis"),
   USER_ALREADY_HAS_MOUQADAM("USER_008", "L'utilisateur a déjà un mouqadam assigné"),
+  USER_MODIFIED("USER_009", "L'utilisateur a été modifié entre-temps"),
 
 
   //Erreurs demande
@@ -44,6 +45,8 @@ public enum ErrorCode {
   VALIDATION_ERROR("SYS_003", "Erreur de validation"),
   BAD_REQUEST("SYS_004", "Requête invalide"),
   ACCESS_DENIED("SYS_004", "Accés refusé"),
+  PRECONDITION_REQUIRED("SYS_005", "Requête conditionnelle requise"),
+  CONCURRENT_MODIFICATION("SYS_006", "Modification concurrente"),
 
   // Erreurs externes (Keycloak, etc.)
   EXTERNAL_SERVICE_ERROR("EXT_001", "Erreur du service externe"),
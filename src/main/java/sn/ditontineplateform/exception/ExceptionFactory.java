@@ -147,6 +147,39 @@ public class ExceptionFactory {
         };
     }
 
+    public BaseCustomException userModified (UUID userId, String ifMatch) {
+        return new BaseCustomException(
+                ErrorCode.USER_MODIFIED,
+                "L'utilisateur a été modifié depuis votre dernière lecture",
+                MessageFormat.format("If-Match {0} does not match the current version of user {1}", ifMatch, userId),
+                HttpStatus.PRECONDITION_FAILED,
+                Map.of("userId", userId, "ifMatch", ifMatch)
+        ) {
+        };
+    }
+
+    public BaseCustomException preconditionRequired (String header) {
+        return new BaseCustomException(
+                ErrorCode.PRECONDITION_REQUIRED,
+                "La modification doit préciser la version lue",
+                MessageFormat.format("Missing {0} header on conditional update", header),
+                HttpStatus.PRECONDITION_REQUIRED,
+                Map.of("header", header)
+        ) {
+        };
+    }
+
+    public BaseCustomException concurrentModification (String entity) {
+        return new BaseCustomException(
+                ErrorCode.CONCURRENT_MODIFICATION,
+                "La ressource est modifiée par une autre opération, veuillez réessayer",
+                MessageFormat.format("Optimistic lock conflicts on {0} persisted after all retries", entity),
+                HttpStatus.CONFLICT,
+                Map.of("entity", entity)
+        ) {
+        };
+    }
+
     public BaseCustomException invalidToken () {
         return new BaseCustomException(
                 ErrorCode.AUTH_INVALID_TOKEN,
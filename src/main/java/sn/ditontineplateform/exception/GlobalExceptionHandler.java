@@ -8,11 +8,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import sn.ditontineplateform.response.CustomResponse;
 import sn.ditontineplateform.utils.Constants;
+import sn.ditontineplateform.utils.TraceIds;
 
 import java.text.MessageFormat;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -84,7 +84,7 @@ public class GlobalExceptionHandler {
                                 })
                         .collect(Collectors.toList());
 
-        String traceId = UUID.randomUUID().toString().substring(0, 8);
+        String traceId = TraceIds.current();
         log.warn(
                 "Validation error | TraceId: {} | Fields: {}",
                 traceId,
@@ -112,7 +112,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomResponse> handleGenericException (Exception ex) {
-        String traceId = UUID.randomUUID().toString().substring(0, 8);
+        String traceId = TraceIds.current();
         log.error(
                 "Unhandled exception | TraceId: {} | Exception: {}",
                 traceId,
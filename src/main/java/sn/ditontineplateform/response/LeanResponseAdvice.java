@@ -0,0 +1,44 @@
+package sn.ditontineplateform.response;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Enveloppe allégée, activée par {@code api.response.lean} (production).
+ * <p>
+ * Le {@code developerMessage} n'est jamais envoyé. En cas de succès, {@code status}, {@code message} et
+ * {@code timestamp} sont aussi retirés : ils répètent le code HTTP, le {@code code} et l'en-tête {@code Date}.
+ * Les réponses d'erreur gardent leur message utilisateur. {@link CustomResponse} omet les champs {@code null}.
+ */
+@RestControllerAdvice
+public class LeanResponseAdvice implements ResponseBodyAdvice<Object> {
+
+  @Value("${api.response.lean:false}")
+  private boolean lean;
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return lean;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (body instanceof CustomResponse customResponse) {
+      customResponse.setDeveloperMessage(null);
+      if (customResponse.getStatusCodeValue() < 400) {
+        customResponse.setStatus(null);
+        customResponse.setMessage(null);
+        customResponse.setTimestamp(null);
+      }
+    }
+    return body;
+  }
+}
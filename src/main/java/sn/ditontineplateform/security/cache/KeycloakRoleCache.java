@@ -0,0 +1,188 @@
+package sn.ditontineplateform.security.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.security.client.KeycloakGateway;
+import sn.ditontineplateform.utils.ResponseMessageConstants;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cache des rôles realm Keycloak par identifiant externe (keycloakId). Évite un appel
+ * {@code listEffective()} par utilisateur lors des listings paginés.
+ * <p>
+ * Un échec de lecture n'est jamais mis en cache : l'utilisateur reçoit la dernière valeur connue (conservée
+ * {@code stale-ttl} après son chargement) ou, à défaut, l'erreur est propagée. Chaque repli est journalisé et compté
+ * ({@code keycloak.role_cache.fallback}, tag {@code outcome} = {@code stale} ou {@code failed}).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KeycloakRoleCache {
+
+    private static final String CACHE_NAME = "keycloak.user.roles";
+
+    private final Keycloak keycloak;
+    private final MeterRegistry meterRegistry;
+    private final KeycloakGateway keycloakGateway;
+    private final ExceptionFactory exceptionFactory;
+
+    @Value("${keycloak-client.realm}")
+    private String realm;
+
+    @Value("${keycloak-client.role-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${keycloak-client.role-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${keycloak-client.role-cache.prefetch-concurrency:8}")
+    private int prefetchConcurrency;
+
+    @Value("${keycloak-client.role-cache.stale-ttl:PT24H}")
+    private Duration staleTtl;
+
+    private Cache<String, List<String>> cache;
+
+    /**
+     * Dernières valeurs chargées avec succès, servies uniquement lorsque Keycloak ne répond pas.
+     */
+    private Cache<String, List<String>> lastKnown;
+
+    @PostConstruct
+    void init () {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.lastKnown = Caffeine.newBuilder()
+                .expireAfterWrite(staleTtl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Retourne les rôles TONTINE_* d'un utilisateur, depuis le cache ou Keycloak.
+     */
+    public List<String> getRoles (String keycloakId) {
+        try {
+            return cache.get(keycloakId, this::fetchRoles);
+        } catch (RuntimeException e) {
+            return fallback(keycloakId, e);
+        }
+    }
+
+    /**
+     * Résout les rôles d'un ensemble d'utilisateurs en une seule passe : les entrées absentes du cache
+     * sont chargées en parallèle (concurrence bornée) puis mises en cache ensemble.
+     *
+     * @return une map keycloakId -> rôles ; un utilisateur dont la lecture échoue reçoit sa dernière valeur connue
+     */
+    public Map<String, List<String>> prefetch (Collection<String> keycloakIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        keycloakIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+        Map<String, List<String>> result = new HashMap<>(cache.getAll(ids, missing -> fetchAll(missing, failures)));
+        for (String id : ids) {
+            if (!result.containsKey(id)) {
+                result.put(id, fallback(id, failures.get(id)));
+            }
+        }
+        return result;
+    }
+
+    public void invalidate (String keycloakId) {
+        if (keycloakId != null) {
+            cache.invalidate(keycloakId);
+            lastKnown.invalidate(keycloakId);
+        }
+    }
+
+    /**
+     * Charge les rôles absents du cache ; les échecs sont collectés dans {@code failures} et les entrées
+     * correspondantes omises, donc jamais mises en cache.
+     */
+    private Map<String, List<String>> fetchAll (Set<? extends String> missing, Map<String, RuntimeException> failures) {
+        Map<String, List<String>> loaded = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(Math.max(1, prefetchConcurrency));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String keycloakId : missing) {
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        loaded.put(keycloakId, fetchRoles(keycloakId));
+                    } catch (RuntimeException e) {
+                        failures.put(keycloakId, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return loaded;
+    }
+
+    private List<String> fetchRoles (String keycloakId) {
+        RoleScopeResource realmRoles = keycloak.realm(realm).users().get(keycloakId).roles().realmLevel();
+        List<String> roles = keycloakGateway.call(KeycloakGateway.Operation.ADMIN_READ, realmRoles::listEffective)
+                .stream()
+                .map(RoleRepresentation::getName)
+                .filter(roleName -> roleName.startsWith(ResponseMessageConstants.TONTINE_ROLE_PREFIX))
+                .toList();
+        lastKnown.put(keycloakId, roles);
+        return roles;
+    }
+
+    /**
+     * Repli après un échec de lecture : dernière valeur connue si elle existe, sinon propagation de l'erreur.
+     */
+    private List<String> fallback (String keycloakId, RuntimeException cause) {
+        List<String> stale = lastKnown.getIfPresent(keycloakId);
+        if (stale != null) {
+            fallbacks("stale").increment();
+            log.warn("Rôles Keycloak de {} indisponibles, dernière valeur connue servie : {}",
+                    keycloakId, cause != null ? cause.getMessage() : "inconnue");
+            return stale;
+        }
+        fallbacks("failed").increment();
+        log.error("Rôles Keycloak de {} indisponibles et aucune valeur connue", keycloakId, cause);
+        throw cause != null ? cause : exceptionFactory.serviceUnavailable("Keycloak");
+    }
+
+    private Counter fallbacks (String outcome) {
+        return Counter.builder("keycloak.role_cache.fallback")
+                .description("Lectures de rôles Keycloak en échec, servies depuis la dernière valeur connue ou non")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,320 @@
+package sn.ditontineplateform.security.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.SenderContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.utils.OutboundHeaders;
+import sn.ditontineplateform.utils.RequestDeadline;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Point de passage unique des appels à Keycloak (endpoint token et API d'administration).
+ * <p>
+ * Chaque type d'opération dispose de son propre bulkhead et de son propre circuit breaker : une saturation des
+ * écritures d'administration ne bloque ni les connexions ni les lectures. L'appel est exécuté sur un thread virtuel
+ * et l'appelant n'attend jamais plus que le délai de l'opération, borné par l'échéance de la requête
+ * ({@link RequestDeadline}). Un appel abandonné garde sa place dans le bulkhead jusqu'à sa fin réelle, de sorte
+ * qu'un Keycloak figé fait échouer rapidement les appels suivants au lieu d'accumuler des threads.
+ * <p>
+ * Les refus (circuit ouvert, bulkhead plein, échéance dépassée) et les erreurs réseau sont convertis en
+ * {@link ExceptionFactory#serviceUnavailable(String)} ; les autres exceptions sont relancées telles quelles.
+ * <p>
+ * Chaque appel est une observation {@code keycloak.client} (span client) : l'en-tête {@code traceparent} qu'elle
+ * produit et le MDC de l'appelant sont transmis au thread virtuel, où {@link OutboundHeaders} les met à disposition
+ * des clients HTTP.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KeycloakGateway {
+
+    private static final String SERVICE_NAME = "Keycloak";
+
+    /**
+     * Familles d'appels isolées les unes des autres.
+     */
+    public enum Operation {
+        LOGIN,
+        ADMIN_READ,
+        ADMIN_WRITE;
+
+        String instanceName () {
+            return "keycloak-" + name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    /**
+     * Appel Keycloak pouvant lever une exception vérifiée.
+     */
+    @FunctionalInterface
+    public interface KeycloakCall<T> {
+        T call () throws Exception;
+    }
+
+    /**
+     * Appel Keycloak sans valeur de retour.
+     */
+    @FunctionalInterface
+    public interface KeycloakAction {
+        void run () throws Exception;
+    }
+
+    private final ExceptionFactory exceptionFactory;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${keycloak-client.resilience.login.max-concurrent-calls:50}")
+    private int loginMaxConcurrentCalls;
+
+    @Value("${keycloak-client.resilience.login.timeout:PT5S}")
+    private Duration loginTimeout;
+
+    @Value("${keycloak-client.resilience.admin-read.max-concurrent-calls:20}")
+    private int adminReadMaxConcurrentCalls;
+
+    @Value("${keycloak-client.resilience.admin-read.timeout:PT5S}")
+    private Duration adminReadTimeout;
+
+    @Value("${keycloak-client.resilience.admin-write.max-concurrent-calls:10}")
+    private int adminWriteMaxConcurrentCalls;
+
+    @Value("${keycloak-client.resilience.admin-write.timeout:PT10S}")
+    private Duration adminWriteTimeout;
+
+    @Value("${keycloak-client.resilience.bulkhead-max-wait:PT0.2S}")
+    private Duration bulkheadMaxWait;
+
+    @Value("${keycloak-client.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${keycloak-client.resilience.slow-call-duration:PT3S}")
+    private Duration slowCallDuration;
+
+    @Value("${keycloak-client.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${keycloak-client.resilience.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${keycloak-client.resilience.wait-in-open-state:PT30S}")
+    private Duration waitInOpenState;
+
+    @Value("${keycloak-client.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private final Map<Operation, CircuitBreaker> circuitBreakers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Bulkhead> bulkheads = new EnumMap<>(Operation.class);
+    private final Map<Operation, Duration> timeouts = new EnumMap<>(Operation.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void init () {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+        register(Operation.LOGIN, loginMaxConcurrentCalls, loginTimeout, circuitBreakerRegistry, bulkheadRegistry);
+        register(Operation.ADMIN_READ, adminReadMaxConcurrentCalls, adminReadTimeout,
+                circuitBreakerRegistry, bulkheadRegistry);
+        register(Operation.ADMIN_WRITE, adminWriteMaxConcurrentCalls, adminWriteTimeout,
+                circuitBreakerRegistry, bulkheadRegistry);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    private void register (Operation operation, int maxConcurrentCalls, Duration timeout,
+                           CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(operation.instanceName());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit Keycloak {} : {}", operation, event.getStateTransition()));
+        circuitBreakers.put(operation, circuitBreaker);
+
+        bulkheads.put(operation, bulkheadRegistry.bulkhead(operation.instanceName(), BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build()));
+        timeouts.put(operation, timeout);
+    }
+
+    @PreDestroy
+    void close () {
+        executor.shutdownNow();
+    }
+
+    public void run (Operation operation, KeycloakAction action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T call (Operation operation, KeycloakCall<T> action) {
+        Map<String, String> headers = new HashMap<>();
+        SenderContext<Map<String, String>> context = new SenderContext<>(Map::put);
+        context.setCarrier(headers);
+        context.setRemoteServiceName(SERVICE_NAME);
+
+        Observation observation = Observation.createNotStarted("keycloak.client", () -> context, observationRegistry)
+                .lowCardinalityKeyValue("operation", operation.name())
+                .start();
+        try {
+            return execute(operation, action, headers);
+        } catch (RuntimeException | Error e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private <T> T execute (Operation operation, KeycloakCall<T> action, Map<String, String> headers) {
+        Duration timeout = RequestDeadline.cap(timeouts.get(operation));
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw reject(operation, "deadline");
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(operation);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw reject(operation, "circuit_open");
+        }
+        Bulkhead bulkhead = bulkheads.get(operation);
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw reject(operation, "bulkhead_full");
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long start = System.nanoTime();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                RequestDeadline.set(deadline);
+                OutboundHeaders.set(headers);
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return action.call();
+                } finally {
+                    RequestDeadline.clear();
+                    OutboundHeaders.clear();
+                    MDC.clear();
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.onComplete();
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+
+        try {
+            T result = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw reject(operation, "timeout");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            throw reject(operation, "interrupted");
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            long elapsed = System.nanoTime() - start;
+            if (isUnavailability(cause)) {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, cause);
+                if (cause instanceof RuntimeException runtime && !isTransportFailure(cause)) {
+                    throw runtime;
+                }
+                log.warn("Keycloak injoignable ({}) : {}", operation, cause.getMessage());
+                throw reject(operation, "unavailable");
+            }
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw exceptionFactory.serviceInternalError(SERVICE_NAME);
+        }
+    }
+
+    /**
+     * Erreurs qui traduisent une indisponibilité de Keycloak et comptent comme échecs pour le circuit breaker. Les
+     * erreurs fonctionnelles (4xx, identifiants invalides, ...) n'en font pas partie.
+     */
+    private static boolean isUnavailability (Throwable error) {
+        if (isTransportFailure(error)) {
+            return true;
+        }
+        if (error instanceof KeycloakTokenException tokenException) {
+            return tokenException.getStatus() >= 500;
+        }
+        return error instanceof WebApplicationException webException
+                && webException.getResponse() != null
+                && webException.getResponse().getStatus() >= 500;
+    }
+
+    private static boolean isTransportFailure (Throwable error) {
+        return error instanceof IOException || error instanceof ProcessingException;
+    }
+
+    private RuntimeException reject (Operation operation, String reason) {
+        Counter.builder("keycloak.gateway.rejections")
+                .description("Appels Keycloak refusés ou abandonnés par la couche de résilience")
+                .tag("operation", operation.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return exceptionFactory.serviceUnavailable(SERVICE_NAME);
+    }
+}
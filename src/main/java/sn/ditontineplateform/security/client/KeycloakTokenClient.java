@@ -0,0 +1,237 @@
+package sn.ditontineplateform.security.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.keycloak.OAuth2Constants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.ditontineplateform.config.KeycloakClientConfig;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.exception.ValidationException;
+import sn.ditontineplateform.security.dto.TokenResponse;
+import sn.ditontineplateform.utils.InstrumentedConnectionManager;
+import sn.ditontineplateform.utils.OutboundHeadersInterceptor;
+import sn.ditontineplateform.utils.RequestDeadline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client partagé de l'endpoint token OpenID Connect de Keycloak. Un seul pool de connexions (keep-alive, taille
+ * bornée, délais configurables) est réutilisé par tous les appels au lieu de construire un client Keycloak par
+ * connexion.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KeycloakTokenClient {
+
+    private static final String POOL_NAME = "keycloak-token";
+
+    private final KeycloakClientConfig keycloakClientConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExceptionFactory exceptionFactory;
+
+    @Value("${keycloak-client.token-client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${keycloak-client.token-client.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${keycloak-client.token-client.socket-timeout:PT5S}")
+    private Duration socketTimeout;
+
+    @Value("${keycloak-client.token-client.acquire-timeout:PT1S}")
+    private Duration acquireTimeout;
+
+    @Value("${keycloak-client.token-client.keep-alive:PT30S}")
+    private Duration keepAlive;
+
+    private InstrumentedConnectionManager connectionManager;
+    private RequestConfig requestConfig;
+    private CloseableHttpClient httpClient;
+    private ObjectReader tokenReader;
+    private String tokenEndpoint;
+    private Counter coalescedRefreshes;
+
+    /** Rafraîchissements en cours, indexés par refresh token, partagés entre requêtes concurrentes. */
+    private final Map<String, CompletableFuture<TokenResponse>> inFlightRefreshes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init () {
+        connectionManager = new InstrumentedConnectionManager(meterRegistry, POOL_NAME, maxConnections, keepAlive);
+
+        requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()))
+                .setSocketTimeout(Math.toIntExact(socketTimeout.toMillis()))
+                .setConnectionRequestTimeout(Math.toIntExact(acquireTimeout.toMillis()))
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .addInterceptorLast(new OutboundHeadersInterceptor())
+                .build();
+
+        tokenReader = objectMapper.readerFor(TokenResponse.class);
+        tokenEndpoint = MessageFormat.format(
+                "{0}/realms/{1}/protocol/openid-connect/token",
+                keycloakClientConfig.getUrl(), keycloakClientConfig.getRealm()
+        );
+
+        coalescedRefreshes = Counter.builder("keycloak.token.refresh.coalesced")
+                .description("Rafraîchissements servis par un appel Keycloak déjà en cours")
+                .register(meterRegistry);
+        Gauge.builder("keycloak.token.refresh.in_flight", inFlightRefreshes, Map::size)
+                .description("Rafraîchissements distincts en cours vers Keycloak")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close () throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Obtient un token via le grant "password".
+     *
+     * @throws KeycloakTokenException si Keycloak refuse la requête
+     * @throws IOException            en cas d'erreur réseau ou de pool saturé
+     */
+    public TokenResponse passwordGrant (String username, String password) throws IOException {
+        List<NameValuePair> params = new ArrayList<>();
+        params.add(new BasicNameValuePair("grant_type", OAuth2Constants.PASSWORD));
+        params.add(new BasicNameValuePair("username", username));
+        params.add(new BasicNameValuePair("password", password));
+        return requestToken(OAuth2Constants.PASSWORD, params);
+    }
+
+    /**
+     * Obtient un nouveau token via le grant "refresh_token". Les appels concurrents portant le même refresh token
+     * sont regroupés en un seul appel à Keycloak et reçoivent la même réponse.
+     *
+     * @throws ValidationException    si le refresh token est absent
+     * @throws KeycloakTokenException si Keycloak refuse le refresh token
+     * @throws IOException            en cas d'erreur réseau ou de pool saturé
+     */
+    public TokenResponse refreshGrant (String refreshToken) throws IOException {
+        // Clé de regroupement des appels concurrents : ConcurrentHashMap refuse null
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw exceptionFactory.validationError("refreshToken", null, "Le refresh token est obligatoire");
+        }
+        CompletableFuture<TokenResponse> leader = new CompletableFuture<>();
+        CompletableFuture<TokenResponse> existing = inFlightRefreshes.putIfAbsent(refreshToken, leader);
+        if (existing != null) {
+            coalescedRefreshes.increment();
+            return await(existing);
+        }
+
+        try {
+            List<NameValuePair> params = new ArrayList<>();
+            params.add(new BasicNameValuePair("grant_type", OAuth2Constants.REFRESH_TOKEN));
+            params.add(new BasicNameValuePair("refresh_token", refreshToken));
+            leader.complete(requestToken(OAuth2Constants.REFRESH_TOKEN, params));
+        } catch (IOException | RuntimeException e) {
+            leader.completeExceptionally(e);
+        } finally {
+            inFlightRefreshes.remove(refreshToken, leader);
+        }
+        return await(leader);
+    }
+
+    private static TokenResponse await (CompletableFuture<TokenResponse> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private TokenResponse requestToken (String grantType, List<NameValuePair> params) throws IOException {
+        params.add(new BasicNameValuePair("client_id", keycloakClientConfig.getClientId()));
+        params.add(new BasicNameValuePair("client_secret", keycloakClientConfig.getClientSecret()));
+
+        HttpPost post = new HttpPost(tokenEndpoint);
+        post.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+
+        // Ne pas attendre Keycloak au-delà de l'échéance de la requête appelante
+        Duration readTimeout = RequestDeadline.cap(socketTimeout);
+        if (readTimeout.compareTo(socketTimeout) < 0) {
+            post.setConfig(RequestConfig.copy(requestConfig)
+                    .setSocketTimeout(Math.toIntExact(Math.max(1, readTimeout.toMillis())))
+                    .build());
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "IO_ERROR";
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+
+            if (statusCode != 200) {
+                outcome = statusCode >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR";
+                String body = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : null;
+                throw new KeycloakTokenException(statusCode, body);
+            }
+
+            try (InputStream content = entity.getContent()) {
+                TokenResponse token = tokenReader.readValue(content);
+                outcome = "SUCCESS";
+                return token;
+            }
+        } catch (ConnectionPoolTimeoutException e) {
+            log.warn("Pool de connexions Keycloak saturé ({} connexions)", maxConnections);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("keycloak.token.requests")
+                    .description("Latence des appels à l'endpoint token de Keycloak")
+                    .tag("grant_type", grantType)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package sn.ditontineplateform.security.client;
+
+import lombok.Getter;
+
+/**
+ * Réponse non 200 de l'endpoint token de Keycloak (identifiants invalides, compte désactivé, etc.).
+ */
+@Getter
+public class KeycloakTokenException extends RuntimeException {
+    private final int status;
+    private final String body;
+
+    public KeycloakTokenException (int status, String body) {
+        super("Keycloak token endpoint returned " + status);
+        this.status = status;
+        this.body = body;
+    }
+}
@@ -0,0 +1,20 @@
+package sn.ditontineplateform.security.client;
+
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+
+/**
+ * Client d'administration Keycloak réservé aux écritures (création, mot de passe, rôles, déconnexion). Il dispose
+ * de son propre pool de connexions : une rafale de lectures ne peut pas priver les écritures de connexions.
+ */
+public record KeycloakWriteClient(Keycloak keycloak) implements AutoCloseable {
+
+    public RealmResource realm (String realm) {
+        return keycloak.realm(realm);
+    }
+
+    @Override
+    public void close () {
+        keycloak.close();
+    }
+}
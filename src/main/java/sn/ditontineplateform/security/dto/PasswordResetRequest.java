@@ -0,0 +1,14 @@
+package sn.ditontineplateform.security.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordResetRequest {
+    private String newPassword;
+}
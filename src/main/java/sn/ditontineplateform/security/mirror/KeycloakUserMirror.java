@@ -0,0 +1,69 @@
+package sn.ditontineplateform.security.mirror;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Copie locale d'un utilisateur Keycloak et de ses rôles realm TONTINE_* effectifs. Alimentée par
+ * {@link KeycloakUserMirrorService} ; sert les lectures d'{@code AuthService} sans appel à l'API d'administration.
+ *
+ * @author DiTontine Team
+ * @version 1.0
+ * @since 2025-01-01
+ */
+@Data
+@Entity
+@Table(name = "keycloak_user_mirror", indexes = {
+        @Index(name = "idx_keycloak_user_mirror_email", columnList = "email")
+})
+public class KeycloakUserMirror {
+
+    /**
+     * Identifiant Keycloak de l'utilisateur.
+     */
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String username;
+
+    /**
+     * Email stocké en minuscules pour les recherches exactes.
+     */
+    private String email;
+
+    private String firstName;
+
+    private String lastName;
+
+    private boolean enabled;
+
+    private boolean emailVerified;
+
+    private Long createdTimestamp;
+
+    /**
+     * Rôles realm TONTINE_* effectifs (attribués directement, via un groupe ou un rôle composite), triés.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private List<String> roles = List.of();
+
+    /**
+     * Date de la dernière écriture de la ligne par la synchronisation. Exclue de la comparaison.
+     */
+    @EqualsAndHashCode.Exclude
+    @Column(nullable = false)
+    private Instant syncedAt;
+}
@@ -0,0 +1,17 @@
+package sn.ditontineplateform.security.mirror;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface KeycloakUserMirrorRepository extends JpaRepository<KeycloakUserMirror, String> {
+
+    Optional<KeycloakUserMirror> findByEmail (String email);
+
+    @Query("select m.id from KeycloakUserMirror m")
+    List<String> findAllIds ();
+}
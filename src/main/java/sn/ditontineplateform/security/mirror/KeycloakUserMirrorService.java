@@ -0,0 +1,503 @@
+package sn.ditontineplateform.security.mirror;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.GroupResource;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.representations.idm.AdminEventRepresentation;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.ditontineplateform.security.client.KeycloakGateway;
+import sn.ditontineplateform.utils.ResponseMessageConstants;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static sn.ditontineplateform.security.client.KeycloakGateway.Operation.ADMIN_READ;
+
+/**
+ * Miroir local des utilisateurs Keycloak et de leurs rôles realm TONTINE_* effectifs : attribués directement, via un
+ * groupe (sous-groupes compris) ou via un rôle composite, dont {@code default-roles-<realm>}.
+ * <p>
+ * Un import complet paginé est rejoué tous les {@code full-sync-interval} : seules les lignes dont le contenu a changé
+ * sont réécrites et les utilisateurs disparus de Keycloak sont supprimés. Entre deux imports complets, chaque passage
+ * ({@code sync-interval}) lit les événements d'administration Keycloak survenus depuis le précédent et ne recharge que
+ * les utilisateurs concernés ; un changement de rôle, de composite ou de groupe, qui peut toucher un grand nombre
+ * d'utilisateurs, déclenche un import complet. Sans événements d'administration activés sur le realm, seuls les
+ * imports complets rattrapent les modifications faites hors de l'application.
+ * <p>
+ * Les écritures faites par l'application (création, ajout de rôle) rafraîchissent immédiatement l'entrée concernée.
+ * Tant qu'aucune synchronisation complète n'a abouti, les lectures renvoient {@link Optional#empty()} et l'appelant
+ * interroge Keycloak directement.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class KeycloakUserMirrorService {
+
+    private static final String METRIC_PREFIX = "keycloak.mirror";
+
+    /**
+     * Types de ressources des événements d'administration pouvant modifier un utilisateur ou ses rôles effectifs.
+     */
+    private static final List<String> EVENT_RESOURCE_TYPES =
+            List.of("USER", "REALM_ROLE_MAPPING", "GROUP_MEMBERSHIP", "REALM_ROLE", "GROUP");
+
+    private static final String USER_PATH_PREFIX = "users/";
+
+    /**
+     * Recouvrement entre deux lectures d'événements, pour absorber un décalage d'horloge avec Keycloak ; recharger
+     * deux fois un utilisateur est sans effet.
+     */
+    private static final long EVENT_OVERLAP_MILLIS = 60_000;
+
+    private final Keycloak keycloak;
+    private final KeycloakUserMirrorRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final KeycloakGateway keycloakGateway;
+
+    @Value("${keycloak-client.realm}")
+    private String realm;
+
+    @Value("${keycloak-client.mirror.enabled:true}")
+    private boolean enabled;
+
+    @Value("${keycloak-client.mirror.page-size:200}")
+    private int pageSize;
+
+    @Value("${keycloak-client.mirror.incremental:true}")
+    private boolean incremental;
+
+    @Value("${keycloak-client.mirror.full-sync-interval:PT1H}")
+    private Duration fullSyncInterval;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastSyncEpochMillis = new AtomicLong();
+    private final AtomicLong eventsCheckedEpochMillis = new AtomicLong();
+    private final AtomicLong mirroredUsers = new AtomicLong();
+
+    /**
+     * Rôles TONTINE_* conférés à tout utilisateur par {@code default-roles-<realm>}, relus à chaque import complet.
+     */
+    private volatile Set<String> defaultRoles = Set.of();
+
+    private Counter upsertCounter;
+    private Counter deleteCounter;
+
+    @PostConstruct
+    void init () {
+        Gauge.builder(METRIC_PREFIX + ".lag", lastSyncEpochMillis, last -> last.get() == 0
+                        ? Double.NaN
+                        : (System.currentTimeMillis() - last.get()) / 1000.0)
+                .description("Âge de la dernière synchronisation complète du miroir Keycloak")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".users", mirroredUsers, AtomicLong::get)
+                .description("Utilisateurs présents dans le miroir Keycloak")
+                .register(meterRegistry);
+        upsertCounter = Counter.builder(METRIC_PREFIX + ".changes").tag("type", "upsert").register(meterRegistry);
+        deleteCounter = Counter.builder(METRIC_PREFIX + ".changes").tag("type", "delete").register(meterRegistry);
+    }
+
+    /**
+     * Indique si le miroir peut servir les lectures (au moins une synchronisation complète réussie).
+     */
+    public boolean isReady () {
+        return enabled && lastSyncEpochMillis.get() > 0;
+    }
+
+    public Optional<UserRepresentation> findByEmail (String email) {
+        if (!isReady() || email == null) {
+            return Optional.empty();
+        }
+        return repository.findByEmail(email.toLowerCase(Locale.ROOT)).map(this::toRepresentation);
+    }
+
+    public Optional<UserRepresentation> findById (String keycloakId) {
+        if (!isReady() || keycloakId == null) {
+            return Optional.empty();
+        }
+        return repository.findById(keycloakId).map(this::toRepresentation);
+    }
+
+    public Optional<List<String>> findRoles (String keycloakId) {
+        if (!isReady() || keycloakId == null) {
+            return Optional.empty();
+        }
+        return repository.findById(keycloakId).map(KeycloakUserMirror::getRoles);
+    }
+
+    /**
+     * Rôles des utilisateurs présents dans le miroir ; les identifiants absents ne figurent pas dans la map.
+     */
+    public Map<String, List<String>> findRoles (Collection<String> keycloakIds) {
+        if (!isReady() || keycloakIds.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findAllById(keycloakIds).stream()
+                .collect(Collectors.toMap(KeycloakUserMirror::getId, KeycloakUserMirror::getRoles));
+    }
+
+    /**
+     * Recharge un utilisateur depuis Keycloak après une écriture faite par l'application. Les erreurs sont
+     * journalisées : la synchronisation périodique rattrapera l'entrée.
+     */
+    public void refresh (String keycloakId) {
+        if (!enabled || keycloakId == null) {
+            return;
+        }
+        try {
+            UserResource userResource = keycloak.realm(realm).users().get(keycloakId);
+            List<RoleRepresentation> effective =
+                    keycloakGateway.call(ADMIN_READ, () -> userResource.roles().realmLevel().listEffective());
+            List<String> roles = effective.stream()
+                    .map(RoleRepresentation::getName)
+                    .filter(this::isTontineRole)
+                    .toList();
+            UserRepresentation user = keycloakGateway.call(ADMIN_READ, userResource::toRepresentation);
+            repository.save(toEntity(user, roles, Instant.now()));
+        } catch (NotFoundException e) {
+            repository.deleteById(keycloakId);
+        } catch (Exception e) {
+            log.warn("Rafraîchissement du miroir impossible pour {} : {}", keycloakId, e.getMessage());
+        }
+    }
+
+    /**
+     * Enregistre un utilisateur que l'application vient de créer, sans relire Keycloak : ses rôles effectifs sont les
+     * rôles attribués complétés de ceux conférés par défaut.
+     */
+    public void record (UserRepresentation user, List<String> roles) {
+        if (!enabled || user.getId() == null) {
+            return;
+        }
+        try {
+            Set<String> effective = new HashSet<>(defaultRoles);
+            roles.stream().filter(this::isTontineRole).forEach(effective::add);
+            repository.save(toEntity(user, effective, Instant.now()));
+        } catch (Exception e) {
+            log.warn("Enregistrement dans le miroir impossible pour {} : {}", user.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Retire du miroir un utilisateur que l'application vient de supprimer de Keycloak.
+     */
+    public void forget (String keycloakId) {
+        if (!enabled || keycloakId == null) {
+            return;
+        }
+        try {
+            repository.deleteById(keycloakId);
+        } catch (Exception e) {
+            log.warn("Suppression dans le miroir impossible pour {} : {}", keycloakId, e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${keycloak-client.mirror.initial-delay:PT10S}",
+            fixedDelayString = "${keycloak-client.mirror.sync-interval:PT2M}")
+    public void synchronize () {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String mode = fullSyncDue() ? "full" : "incremental";
+        try {
+            if ("full".equals(mode)) {
+                synchronizeAll();
+            } else {
+                synchronizeChanges();
+            }
+        } catch (Exception e) {
+            outcome = "error";
+            log.error("Échec de la synchronisation du miroir Keycloak : {}", e.getMessage());
+        } finally {
+            sample.stop(Timer.builder(METRIC_PREFIX + ".sync")
+                    .tag("outcome", outcome)
+                    .tag("mode", mode)
+                    .register(meterRegistry));
+            running.set(false);
+        }
+    }
+
+    private boolean fullSyncDue () {
+        long last = lastSyncEpochMillis.get();
+        return !incremental || last == 0 || System.currentTimeMillis() - last >= fullSyncInterval.toMillis();
+    }
+
+    /**
+     * Recharge les utilisateurs cités par les événements d'administration survenus depuis la lecture précédente. Les
+     * événements sont rendus du plus récent au plus ancien ; la lecture s'arrête au premier événement déjà traité.
+     */
+    private void synchronizeChanges () {
+        long checkedAt = System.currentTimeMillis();
+        long since = eventsCheckedEpochMillis.get() - EVENT_OVERLAP_MILLIS;
+        // dateFrom n'accepte qu'une date : le filtrage fin se fait sur l'horodatage de chaque événement
+        String dateFrom = LocalDate.ofInstant(Instant.ofEpochMilli(since), ZoneOffset.UTC).minusDays(1).toString();
+        RealmResource realmResource = keycloak.realm(realm);
+
+        Set<String> changedUsers = new HashSet<>();
+        boolean realmWide = false;
+        for (int first = 0; ; first += pageSize) {
+            int offset = first;
+            List<AdminEventRepresentation> page = keycloakGateway.call(ADMIN_READ, () -> realmResource.getAdminEvents(
+                    null, null, null, null, null, null, EVENT_RESOURCE_TYPES, dateFrom, null, offset, pageSize));
+            boolean reachedProcessed = false;
+            for (AdminEventRepresentation event : page) {
+                if (event.getTime() < since) {
+                    reachedProcessed = true;
+                } else if (isUserPath(event.getResourcePath())) {
+                    changedUsers.add(userId(event.getResourcePath()));
+                } else {
+                    realmWide = true;
+                }
+            }
+            if (reachedProcessed || page.size() < pageSize) {
+                break;
+            }
+        }
+
+        if (realmWide) {
+            log.info("Modification de rôle ou de groupe dans Keycloak : import complet du miroir");
+            synchronizeAll();
+            return;
+        }
+        changedUsers.forEach(this::refresh);
+        upsertCounter.increment(changedUsers.size());
+        eventsCheckedEpochMillis.set(checkedAt);
+        if (!changedUsers.isEmpty()) {
+            log.info("Miroir Keycloak : {} utilisateur(s) rechargé(s) depuis les événements d'administration",
+                    changedUsers.size());
+        }
+    }
+
+    private static boolean isUserPath (String resourcePath) {
+        return resourcePath != null && resourcePath.startsWith(USER_PATH_PREFIX);
+    }
+
+    private static String userId (String resourcePath) {
+        int end = resourcePath.indexOf('/', USER_PATH_PREFIX.length());
+        return end < 0 ? resourcePath.substring(USER_PATH_PREFIX.length())
+                : resourcePath.substring(USER_PATH_PREFIX.length(), end);
+    }
+
+    private void synchronizeAll () {
+        Instant startedAt = Instant.now();
+        RealmResource realmResource = keycloak.realm(realm);
+        Map<String, Set<String>> roles = loadEffectiveRoles(realmResource);
+
+        Set<String> removed = new HashSet<>(repository.findAllIds());
+        long seen = 0;
+        long upserts = 0;
+
+        for (int first = 0; ; first += pageSize) {
+            int offset = first;
+            List<UserRepresentation> page =
+                    keycloakGateway.call(ADMIN_READ, () -> realmResource.users().list(offset, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(user -> removed.remove(user.getId()));
+            seen += page.size();
+            upserts += applyPage(page, roles, startedAt);
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            repository.deleteAllByIdInBatch(removed);
+        }
+
+        upsertCounter.increment(upserts);
+        deleteCounter.increment(removed.size());
+        mirroredUsers.set(seen);
+        lastSyncEpochMillis.set(startedAt.toEpochMilli());
+        eventsCheckedEpochMillis.set(startedAt.toEpochMilli());
+        log.info("Miroir Keycloak synchronisé : {} utilisateurs, {} mis à jour, {} supprimés",
+                seen, upserts, removed.size());
+    }
+
+    /**
+     * Compare une page Keycloak au contenu du miroir et n'écrit que les lignes modifiées.
+     */
+    private int applyPage (List<UserRepresentation> page, Map<String, Set<String>> roles, Instant syncedAt) {
+        Integer written = transactionTemplate.execute(status -> {
+            Map<String, KeycloakUserMirror> current = repository
+                    .findAllById(page.stream().map(UserRepresentation::getId).toList()).stream()
+                    .collect(Collectors.toMap(KeycloakUserMirror::getId, Function.identity()));
+
+            List<KeycloakUserMirror> changed = new ArrayList<>();
+            for (UserRepresentation user : page) {
+                KeycloakUserMirror candidate = toEntity(user, roles.getOrDefault(user.getId(), Set.of()), syncedAt);
+                if (!candidate.equals(current.get(user.getId()))) {
+                    changed.add(candidate);
+                }
+            }
+            repository.saveAll(changed);
+            return changed.size();
+        });
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Construit la map utilisateur -> rôles TONTINE_* effectifs sans appel par utilisateur. Pour chaque rôle realm,
+     * la fermeture de ses composites donne les rôles TONTINE_* qu'il confère ; les membres directs de chaque rôle qui
+     * en confère au moins un, puis les membres de ses groupes et de leurs sous-groupes, reçoivent ces rôles. Les
+     * composites de rôles client ne sont pas dépliés.
+     */
+    private Map<String, Set<String>> loadEffectiveRoles (RealmResource realmResource) {
+        List<RoleRepresentation> realmRoles = keycloakGateway.call(ADMIN_READ, () -> realmResource.roles().list());
+        Map<String, Set<String>> composites = new HashMap<>();
+        for (RoleRepresentation role : realmRoles) {
+            if (role.isComposite()) {
+                RoleResource roleResource = realmResource.roles().get(role.getName());
+                composites.put(role.getName(), keycloakGateway.call(ADMIN_READ, roleResource::getRealmRoleComposites)
+                        .stream()
+                        .map(RoleRepresentation::getName)
+                        .collect(Collectors.toSet()));
+            }
+        }
+
+        Map<String, Set<String>> effective = new HashMap<>();
+        Map<String, Set<String>> groupMembers = new HashMap<>();
+        Set<String> grantedByDefault = Set.of();
+        for (RoleRepresentation role : realmRoles) {
+            Set<String> granted = closure(role.getName(), composites).stream()
+                    .filter(this::isTontineRole)
+                    .collect(Collectors.toSet());
+            if (granted.isEmpty()) {
+                continue;
+            }
+            if (role.getName().equalsIgnoreCase("default-roles-" + realm)) {
+                grantedByDefault = granted;
+            }
+
+            RoleResource roleResource = realmResource.roles().get(role.getName());
+            Set<String> members = new HashSet<>();
+            paged(roleResource::getUserMembers).forEach(member -> members.add(member.getId()));
+            for (GroupRepresentation group : paged(roleResource::getRoleGroupMembers)) {
+                members.addAll(groupMembers(realmResource, group.getId(), groupMembers));
+            }
+            members.forEach(id -> effective.computeIfAbsent(id, key -> new HashSet<>()).addAll(granted));
+        }
+        defaultRoles = Set.copyOf(grantedByDefault);
+        return effective;
+    }
+
+    /**
+     * Le rôle et tous les rôles qu'il contient, directement ou par composites imbriqués.
+     */
+    private static Set<String> closure (String roleName, Map<String, Set<String>> composites) {
+        Set<String> reached = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(List.of(roleName));
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            if (reached.add(current)) {
+                pending.addAll(composites.getOrDefault(current, Set.of()));
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Membres d'un groupe et de ses sous-groupes, mémorisés : un groupe portant plusieurs rôles n'est lu qu'une fois.
+     */
+    private Set<String> groupMembers (RealmResource realmResource, String groupId, Map<String, Set<String>> memo) {
+        Set<String> cached = memo.get(groupId);
+        if (cached != null) {
+            return cached;
+        }
+        GroupResource group = realmResource.groups().group(groupId);
+        Set<String> members = new HashSet<>();
+        paged((first, max) -> group.members(first, max, true)).forEach(member -> members.add(member.getId()));
+        for (GroupRepresentation subGroup : paged((first, max) -> group.getSubGroups(first, max, true))) {
+            members.addAll(groupMembers(realmResource, subGroup.getId(), memo));
+        }
+        memo.put(groupId, members);
+        return members;
+    }
+
+    /**
+     * Lit une collection paginée de l'API d'administration jusqu'à la dernière page.
+     */
+    private <T> List<T> paged (BiFunction<Integer, Integer, Collection<T>> page) {
+        List<T> all = new ArrayList<>();
+        for (int first = 0; ; first += pageSize) {
+            int offset = first;
+            Collection<T> items = keycloakGateway.call(ADMIN_READ, () -> page.apply(offset, pageSize));
+            all.addAll(items);
+            if (items.size() < pageSize) {
+                return all;
+            }
+        }
+    }
+
+    private boolean isTontineRole (String roleName) {
+        return roleName.startsWith(ResponseMessageConstants.TONTINE_ROLE_PREFIX);
+    }
+
+    private KeycloakUserMirror toEntity (UserRepresentation user, Collection<String> roles, Instant syncedAt) {
+        KeycloakUserMirror mirror = new KeycloakUserMirror();
+        mirror.setId(user.getId());
+        mirror.setUsername(user.getUsername() == null ? null : user.getUsername().toLowerCase(Locale.ROOT));
+        mirror.setEmail(user.getEmail() == null ? null : user.getEmail().toLowerCase(Locale.ROOT));
+        mirror.setFirstName(user.getFirstName());
+        mirror.setLastName(user.getLastName());
+        mirror.setEnabled(Boolean.TRUE.equals(user.isEnabled()));
+        mirror.setEmailVerified(Boolean.TRUE.equals(user.isEmailVerified()));
+        mirror.setCreatedTimestamp(user.getCreatedTimestamp());
+        mirror.setRoles(roles.stream().sorted().toList());
+        mirror.setSyncedAt(syncedAt);
+        return mirror;
+    }
+
+    private UserRepresentation toRepresentation (KeycloakUserMirror mirror) {
+        UserRepresentation user = new UserRepresentation();
+        user.setId(mirror.getId());
+        user.setUsername(mirror.getUsername());
+        user.setEmail(mirror.getEmail());
+        user.setFirstName(mirror.getFirstName());
+        user.setLastName(mirror.getLastName());
+        user.setEnabled(mirror.isEnabled());
+        user.setEmailVerified(mirror.isEmailVerified());
+        user.setCreatedTimestamp(mirror.getCreatedTimestamp());
+        user.setRealmRoles(new ArrayList<>(mirror.getRoles()));
+        return user;
+    }
+}
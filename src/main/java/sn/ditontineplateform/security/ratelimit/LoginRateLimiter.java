@@ -0,0 +1,219 @@
+package sn.ditontineplateform.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sn.ditontineplateform.exception.ExceptionFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limiteur des tentatives de connexion, appliqué avant tout appel à Keycloak.
+ * <p>
+ * Deux seaux à jetons indépendants (GCRA) : un par nom d'utilisateur et un par adresse IP. L'état local tient en un
+ * {@link AtomicLong} par clé, mis à jour par compare-and-set, sans verrou. En mode partagé, une tentative acceptée
+ * localement est ensuite validée par un upsert atomique dans Postgres afin que tous les nœuds consomment les mêmes
+ * seaux ; une erreur de base laisse passer la tentative (le limiteur local reste actif).
+ * <p>
+ * Une tentative refusée par l'un des seaux ne consomme rien : les jetons déjà pris sur les autres seaux (local ou
+ * partagé) sont rendus, afin qu'une IP saturée n'épuise pas le budget d'un utilisateur et inversement.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LoginRateLimiter {
+
+    private static final String SHARED_ACQUIRE_SQL = """
+            INSERT INTO login_rate_limit AS l (bucket_key, tat)
+            VALUES (:key, :now + :emission)
+            ON CONFLICT (bucket_key) DO UPDATE
+                SET tat = GREATEST(l.tat, :now) + :emission
+                WHERE GREATEST(l.tat, :now) + :emission - :now <= :tolerance
+            RETURNING l.tat
+            """;
+
+    private static final String SHARED_RELEASE_SQL =
+            "UPDATE login_rate_limit SET tat = tat - :emission WHERE bucket_key = :key";
+
+    private static final String SHARED_CLEANUP_SQL = "DELETE FROM login_rate_limit WHERE tat < :now";
+
+    private final ExceptionFactory exceptionFactory;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${keycloak-client.login-limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${keycloak-client.login-limiter.shared:false}")
+    private boolean shared;
+
+    @Value("${keycloak-client.login-limiter.username.rate:5}")
+    private int usernameRate;
+
+    @Value("${keycloak-client.login-limiter.username.period:PT1M}")
+    private Duration usernamePeriod;
+
+    @Value("${keycloak-client.login-limiter.ip.rate:30}")
+    private int ipRate;
+
+    @Value("${keycloak-client.login-limiter.ip.period:PT1M}")
+    private Duration ipPeriod;
+
+    @Value("${keycloak-client.login-limiter.max-keys:100000}")
+    private long maxKeys;
+
+    private Bucket usernameBuckets;
+    private Bucket ipBuckets;
+
+    @PostConstruct
+    void init () {
+        usernameBuckets = new Bucket("username", usernameRate, usernamePeriod);
+        ipBuckets = new Bucket("ip", ipRate, ipPeriod);
+    }
+
+    /**
+     * Consomme un jeton pour l'utilisateur et pour l'IP, ou aucun si l'un des deux seaux refuse.
+     *
+     * @throws sn.ditontineplateform.exception.AuthenticationException {@code accountLocked} si l'un des seaux est vide
+     */
+    public void acquire (String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        String userKey = username.trim().toLowerCase(Locale.ROOT);
+        if (!usernameBuckets.tryAcquire(userKey)) {
+            throw exceptionFactory.accountLocked(username);
+        }
+        if (clientIp != null && !ipBuckets.tryAcquire(clientIp)) {
+            usernameBuckets.release(userKey, shared);
+            throw exceptionFactory.accountLocked(username);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${keycloak-client.login-limiter.cleanup-interval:PT5M}")
+    public void purgeSharedBuckets () {
+        if (!enabled || !shared) {
+            return;
+        }
+        try {
+            int purged = jdbcTemplate.update(SHARED_CLEANUP_SQL,
+                    new MapSqlParameterSource("now", System.currentTimeMillis()));
+            log.debug("{} seaux de connexion expirés supprimés", purged);
+        } catch (Exception e) {
+            log.warn("Purge des seaux de connexion impossible : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Seau GCRA : chaque tentative repousse l'instant théorique d'arrivée (TAT) d'un intervalle d'émission ; la
+     * tentative est refusée si le TAT dépasserait l'instant présent de plus que la rafale autorisée.
+     */
+    private final class Bucket {
+
+        private final String keyType;
+        private final long emissionNanos;
+        private final long toleranceNanos;
+        private final long origin = System.nanoTime();
+        private final Cache<String, AtomicLong> arrivals;
+        private final Counter localRejections;
+        private final Counter sharedRejections;
+
+        Bucket (String keyType, int rate, Duration period) {
+            this.keyType = keyType;
+            this.emissionNanos = period.toNanos() / Math.max(1, rate);
+            this.toleranceNanos = emissionNanos * Math.max(1, rate);
+            this.arrivals = Caffeine.newBuilder()
+                    .expireAfterAccess(Duration.ofNanos(toleranceNanos))
+                    .maximumSize(maxKeys)
+                    .build();
+            this.localRejections = rejectionCounter("local");
+            this.sharedRejections = rejectionCounter("shared");
+            Gauge.builder("auth.login.limiter.keys", arrivals, Cache::estimatedSize)
+                    .description("Clés suivies par le limiteur de connexions")
+                    .tag("key", keyType)
+                    .register(meterRegistry);
+        }
+
+        boolean tryAcquire (String key) {
+            AtomicLong tat = arrivals.get(key, k -> new AtomicLong());
+            while (true) {
+                long current = tat.get();
+                long now = System.nanoTime() - origin;
+                long next = Math.max(current, now) + emissionNanos;
+                if (next - now > toleranceNanos) {
+                    localRejections.increment();
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+            if (shared && !tryAcquireShared(key)) {
+                sharedRejections.increment();
+                release(key, false);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Rend un jeton pris par {@link #tryAcquire} : le TAT recule d'un intervalle d'émission, localement et, si
+         * demandé, dans le seau partagé.
+         */
+        void release (String key, boolean includeShared) {
+            AtomicLong tat = arrivals.getIfPresent(key);
+            if (tat != null) {
+                tat.addAndGet(-emissionNanos);
+            }
+            if (includeShared) {
+                releaseShared(key);
+            }
+        }
+
+        private boolean tryAcquireShared (String key) {
+            long emissionMillis = Math.max(1, Duration.ofNanos(emissionNanos).toMillis());
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("key", keyType + ":" + key)
+                    .addValue("now", System.currentTimeMillis())
+                    .addValue("emission", emissionMillis)
+                    .addValue("tolerance", Duration.ofNanos(toleranceNanos).toMillis());
+            try {
+                return !jdbcTemplate.queryForList(SHARED_ACQUIRE_SQL, params, Long.class).isEmpty();
+            } catch (Exception e) {
+                log.warn("Limiteur partagé indisponible, décision locale conservée : {}", e.getMessage());
+                return true;
+            }
+        }
+
+        private void releaseShared (String key) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("key", keyType + ":" + key)
+                    .addValue("emission", Math.max(1, Duration.ofNanos(emissionNanos).toMillis()));
+            try {
+                jdbcTemplate.update(SHARED_RELEASE_SQL, params);
+            } catch (Exception e) {
+                log.warn("Restitution du jeton partagé impossible : {}", e.getMessage());
+            }
+        }
+
+        private Counter rejectionCounter (String scope) {
+            return Counter.builder("auth.login.rejections")
+                    .description("Tentatives de connexion refusées avant l'appel à Keycloak")
+                    .tag("key", keyType)
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+        }
+    }
+}
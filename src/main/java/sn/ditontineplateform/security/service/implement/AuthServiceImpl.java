@@ -1,33 +1,20 @@
 package sn.ditontineplateform.security.service.implement;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.logstash.logback.encoder.org.apache.commons.lang3.StringUtils;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
-import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.RoleResource;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
-import org.keycloak.representations.AccessTokenResponse;
 import org.keycloak.representations.idm.CredentialRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
@@ -35,23 +22,36 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import sn.ditontineplateform.config.KeycloakClientConfig;
 import sn.ditontineplateform.exception.AuthenticationException;
+import sn.ditontineplateform.exception.BaseCustomException;
 import sn.ditontineplateform.exception.CustomException;
 import sn.ditontineplateform.exception.ErrorCode;
 import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.security.cache.KeycloakRoleCache;
+import sn.ditontineplateform.security.client.KeycloakGateway;
+import sn.ditontineplateform.security.client.KeycloakTokenClient;
+import sn.ditontineplateform.security.client.KeycloakTokenException;
+import sn.ditontineplateform.security.client.KeycloakWriteClient;
 import sn.ditontineplateform.security.dto.TokenResponse;
+import sn.ditontineplateform.security.mirror.KeycloakUserMirrorService;
+import sn.ditontineplateform.security.ratelimit.LoginRateLimiter;
 import sn.ditontineplateform.security.service.interfaces.AuthService;
+import sn.ditontineplateform.security.token.ResetTokenRegistry;
 import sn.ditontineplateform.domaine.dto.UserDto;
 import sn.ditontineplateform.utils.JwtUtil;
+import sn.ditontineplateform.utils.RequestHeaderParser;
 import sn.ditontineplateform.utils.ResponseMessageConstants;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
+import static sn.ditontineplateform.security.client.KeycloakGateway.Operation.ADMIN_READ;
+import static sn.ditontineplateform.security.client.KeycloakGateway.Operation.ADMIN_WRITE;
+import static sn.ditontineplateform.security.client.KeycloakGateway.Operation.LOGIN;
 import static sn.ditontineplateform.utils.RequestHeaderParser.extractUserIdFromJwt;
 
 @Service
@@ -59,11 +59,20 @@ import static sn.ditontineplateform.utils.RequestHeaderParser.extractUserIdFromJ
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
+    private static final String RESET_TOKEN_PARAM = "token";
+
     private final Keycloak keycloak;
+    private final KeycloakWriteClient keycloakWriteClient;
     private final KeycloakClientConfig keycloakClientConfig;
     private final JwtUtil jwtUtil;
     //private final EmailService emailService;
     private final ExceptionFactory exceptionFactory;
+    private final KeycloakRoleCache keycloakRoleCache;
+    private final KeycloakTokenClient keycloakTokenClient;
+    private final KeycloakUserMirrorService keycloakUserMirrorService;
+    private final KeycloakGateway keycloakGateway;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ResetTokenRegistry resetTokenRegistry;
 
     @Value("${keycloak-client.realm}")
     private String realm;
@@ -71,6 +80,8 @@ public class AuthServiceImpl implements AuthService {
     @Value("${fayda-app.endpoints.frontend}")
     private String frontendBaseUrl;
 
+    private volatile RoleRepresentation defaultUserRole;
+
     /** Authentification d'un utilisateur avec extraction des informations du token JWT */
     @Override
     public TokenResponse login (String username, String password, HttpServletRequest request)
@@ -82,55 +93,39 @@ public class AuthServiceImpl implements AuthService {
                     "username/password", null, "Le nom d'utilisateur et le mot de passe sont requis");
         }
 
+        // Rejet des tentatives excédentaires avant tout appel au password grant
+        loginRateLimiter.acquire(username, RequestHeaderParser.clientIp(request));
+
         try {
-            Keycloak keycloakLogin = KeycloakBuilder.builder()
-                    .serverUrl(keycloakClientConfig.getUrl())
-                    .realm(keycloakClientConfig.getRealm())
-                    .clientId(keycloakClientConfig.getClientId())
-                    .clientSecret(keycloakClientConfig.getClientSecret())
-                    .username(username)
-                    .password(password)
-                    .grantType(OAuth2Constants.PASSWORD)
-                    .build();
-
-            AccessTokenResponse token = keycloakLogin.tokenManager().getAccessToken();
-
-            if (token == null || token.getToken() == null || token.getToken().isEmpty()) {
+            TokenResponse token = keycloakGateway.call(LOGIN, () -> keycloakTokenClient.passwordGrant(username, password));
+
+            if (token == null || token.getAccessToken() == null || token.getAccessToken().isEmpty()) {
                 log.warn("Login échoué : token invalide pour user '{}'", username);
                 throw exceptionFactory.invalidToken();
             }
 
-            return TokenResponse.builder()
-                    .accessToken(token.getToken())
-                    .expiresIn(Math.toIntExact(token.getExpiresIn()))
-                    .refreshExpiresIn(Math.toIntExact(token.getRefreshExpiresIn()))
-                    .refreshToken(token.getRefreshToken())
-                    .tokenType(token.getTokenType())
-                    .notBeforePolicy(token.getNotBeforePolicy())
-                    .sessionState(token.getSessionState())
-                    .scope(token.getScope())
-                    .build();
-
-        } catch (WebApplicationException e) {
-            String msg =
-                    e.getResponse() != null ? e.getResponse().readEntity(String.class) : e.getMessage();
+            return token;
+
+        } catch (KeycloakTokenException e) {
+            String msg = e.getBody() != null ? e.getBody() : e.getMessage();
             log.warn("Erreur d'authentification Keycloak pour user '{}': {}", username, msg);
 
-            if (msg != null) {
-                if (msg.contains("401") || msg.toLowerCase().contains("invalid user credentials")) {
-                    throw exceptionFactory.invalidCredentials(username);
-                } else if (msg.toLowerCase().contains("account is disabled")) {
-                    throw exceptionFactory.accountDisabled(username);
-                } else if (msg.toLowerCase().contains("account is temporarily locked")) {
-                    throw exceptionFactory.accountLocked(username);
-                } else if (msg.contains("503")) {
-                    throw exceptionFactory.serviceUnavailable("Keycloak");
-                }
+            if (e.getStatus() == 401 || msg.toLowerCase().contains("invalid user credentials")) {
+                throw exceptionFactory.invalidCredentials(username);
+            } else if (msg.toLowerCase().contains("account is disabled")) {
+                throw exceptionFactory.accountDisabled(username);
+            } else if (msg.toLowerCase().contains("account is temporarily locked")) {
+                throw exceptionFactory.accountLocked(username);
+            } else if (e.getStatus() == 503) {
+                throw exceptionFactory.serviceUnavailable("Keycloak");
             }
 
             throw new AuthenticationException(
                     ErrorCode.AUTH_INVALID_CREDENTIALS, "Erreur d'authentification");
 
+        } catch (BaseCustomException e) {
+            throw e;
+
         } catch (Exception e) {
             log.error(
                     "Erreur inattendue lors de la connexion utilisateur : {} \n {}",
@@ -144,10 +139,9 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public void logoutUser (String userId) {
         try {
-            RealmResource realmResource = keycloak.realm(realm);
-            UserResource userResource = realmResource.users().get(userId);
+            UserResource userResource = keycloakWriteClient.realm(realm).users().get(userId);
             log.info("userId : {} ", userId);
-            userResource.logout();
+            keycloakGateway.run(ADMIN_WRITE, userResource::logout);
 
         } catch (NotFoundException e) {
             log.warn("Tentative de déconnexion pour un utilisateur inexistant : {}", userId);
@@ -157,6 +151,9 @@ public class AuthServiceImpl implements AuthService {
             log.warn("Requête invalide lors de la déconnexion de l'utilisateur : {}", userId);
             throw exceptionFactory.badRequest("Requête de déconnexion invalide");
 
+        } catch (BaseCustomException e) {
+            throw e;
+
         } catch (Exception e) {
             throw exceptionFactory.internalServerError("Erreur lors de la déconnexion", e);
         }
@@ -170,9 +167,12 @@ public class AuthServiceImpl implements AuthService {
             newCred.setType(CredentialRepresentation.PASSWORD);
             newCred.setValue(newPassword);
 
-            keycloak.realm(keycloakClientConfig.getRealm()).users().get(userId).resetPassword(newCred);
+            UserResource userResource = keycloakWriteClient.realm(keycloakClientConfig.getRealm()).users().get(userId);
+            keycloakGateway.run(ADMIN_WRITE, () -> userResource.resetPassword(newCred));
         } catch (NotFoundException e) {
             throw exceptionFactory.userNotFound(userId);
+        } catch (BaseCustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erreur lors du reset du mot de passe : {}", e.getMessage());
             throw exceptionFactory.internalServerError(
@@ -182,8 +182,13 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public String createKeycloakUser (UserDto request) {
-        RealmResource realm = keycloak.realm(keycloakClientConfig.getRealm());
-        UsersResource users = realm.users();
+        UsersResource users = keycloakWriteClient.realm(keycloakClientConfig.getRealm()).users();
+
+        // Le mot de passe est transmis avec la création : un aller-retour de moins par utilisateur
+        CredentialRepresentation credential = new CredentialRepresentation();
+        credential.setType(CredentialRepresentation.PASSWORD);
+        credential.setValue(request.getPassword());
+        credential.setTemporary(false);
 
         UserRepresentation user = new UserRepresentation();
         user.setUsername(request.getUsername());
@@ -192,69 +197,95 @@ public class AuthServiceImpl implements AuthService {
         user.setLastName(request.getLastName());
         user.setEmailVerified(false);
         user.setEnabled(true);
+        user.setCredentials(List.of(credential));
 
-        Response response = users.create(user);
+        String userId;
+        try (Response response = keycloakGateway.call(ADMIN_WRITE, () -> users.create(user))) {
+            int status = response.getStatus();
 
-        int status = response.getStatus();
+            if (status == 409) {
+                log.warn("Conflit : un utilisateur avec ce nom d'utilisateur ou cet e-mail existe déjà.");
+                throw exceptionFactory.userAlreadyExists(request.getUsername());
+            }
+            if (status == 503) {
+                log.error("Service Keycloak indisponible (503). Veuillez réessayer plus tard.");
+                throw exceptionFactory.serviceUnavailable("Keycloak");
+            }
+            if (status == 400) {
+                log.error("Veuillez verifier les informations saisies et recommencer à nouveau.");
+                throw exceptionFactory.validationError(
+                        "userData", request.getUsername(), "Données utilisateur invalides");
+            }
+            if (status != 201) {
+                log.error("Échec de la création dans Keycloak : {}", response.getStatusInfo());
+                throw exceptionFactory.externalServiceError(
+                        "Keycloak", response.getStatusInfo().getReasonPhrase());
+            }
 
-        if (status == 409) {
-            log.warn("Conflit : un utilisateur avec ce nom d'utilisateur ou cet e-mail existe déjà.");
-            throw exceptionFactory.userAlreadyExists(request.getUsername());
-        }
-        if (status == 503) {
-            log.error("Service Keycloak indisponible (503). Veuillez réessayer plus tard.");
-            throw exceptionFactory.serviceUnavailable("Keycloak");
-        }
-        if (status == 400) {
-            log.error("Veuillez verifier les informations saisies et recommencer à nouveau.");
-            throw exceptionFactory.validationError(
-                    "userData", request.toString(), "Données utilisateur invalides");
-        }
-        if (status != 201) {
-            log.error("Échec de la création dans Keycloak : {}", response.getStatusInfo());
-            throw exceptionFactory.externalServiceError(
-                    "Keycloak", response.getStatusInfo().getReasonPhrase());
+            // Récupère l'ID Keycloak depuis l'URL de localisation
+            userId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
         }
 
-        log.info("response : {}", response.getStatusInfo());
-        // Récupère l'ID Keycloak depuis l'URL de localisation
-        String userId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
         UserResource userResource = users.get(userId);
-
-        // Définit le mot de passe (optionnel)
-        CredentialRepresentation credential = new CredentialRepresentation();
-        credential.setType(CredentialRepresentation.PASSWORD);
-        credential.setValue(request.getPassword());
-        credential.setTemporary(false);
-
-        users.get(userId).resetPassword(credential);
-
-        RoleResource roleResource =
-                realm
-                        .roles()
-                        .get(
-                                ResponseMessageConstants.TONTINE_ROLE_PREFIX
-                                        + ResponseMessageConstants.ROLE_USER);
+        RoleRepresentation role = defaultUserRole();
         try {
-            RoleRepresentation role = roleResource.toRepresentation();
-            userResource.roles().realmLevel().add(List.of(role));
+            keycloakGateway.run(ADMIN_WRITE, () -> userResource.roles().realmLevel().add(List.of(role)));
         } catch (NotFoundException e) {
-            log.error("Rôle FAYDA_ROLE_USER introuvable : {}", e.getMessage());
-            throw exceptionFactory.keycloakConfigurationError("Rôle FAYDA_ROLE_USER manquant");
+            // Le rôle a pu être recréé dans Keycloak : la représentation en cache n'est plus valide
+            defaultUserRole = null;
+            log.error("Rôle {} introuvable : {}", role.getName(), e.getMessage());
+            throw exceptionFactory.keycloakConfigurationError("Rôle " + role.getName() + " manquant");
         }
+
+        user.setId(userId);
+        user.setCredentials(null);
+        keycloakRoleCache.invalidate(userId);
+        keycloakUserMirrorService.record(user, List.of(role.getName()));
         return userId;
     }
 
+    @Override
+    public void deleteKeycloakUser (String userId) {
+        UsersResource users = keycloakWriteClient.realm(keycloakClientConfig.getRealm()).users();
+        try (Response response = keycloakGateway.call(ADMIN_WRITE, () -> users.delete(userId))) {
+            int status = response.getStatus();
+            if (status != 204 && status != 404) {
+                log.error("Échec de la suppression dans Keycloak de {} : {}", userId, response.getStatusInfo());
+                throw exceptionFactory.externalServiceError(
+                        "Keycloak", response.getStatusInfo().getReasonPhrase());
+            }
+        }
+        keycloakRoleCache.invalidate(userId);
+        keycloakUserMirrorService.forget(userId);
+        log.info("Compte Keycloak supprimé : {}", userId);
+    }
+
+    /**
+     * Représentation du rôle attribué à tout nouvel utilisateur, lue une seule fois dans Keycloak.
+     */
+    private RoleRepresentation defaultUserRole () {
+        RoleRepresentation role = defaultUserRole;
+        if (role == null) {
+            String roleName = ResponseMessageConstants.TONTINE_ROLE_PREFIX + ResponseMessageConstants.ROLE_USER;
+            RoleResource roleResource = keycloak.realm(keycloakClientConfig.getRealm()).roles().get(roleName);
+            try {
+                role = keycloakGateway.call(ADMIN_READ, roleResource::toRepresentation);
+            } catch (NotFoundException e) {
+                log.error("Rôle {} introuvable : {}", roleName, e.getMessage());
+                throw exceptionFactory.keycloakConfigurationError("Rôle " + roleName + " manquant");
+            }
+            defaultUserRole = role;
+        }
+        return role;
+    }
+
     @Override
     public void sendPasswordResetEmail (String email) {
         try {
             // 1. Vérifier si l'utilisateur existe
-            List<UserRepresentation> users = keycloak.realm(realm).users().search(email, true);
-            if (users.isEmpty()) {
-                throw exceptionFactory.emailNotFound(email);
-            }
-
-            UserRepresentation user = users.getFirst();
+            UserRepresentation user = keycloakUserMirrorService.findByEmail(email)
+                    .or(() -> searchKeycloakByEmail(email))
+                    .orElseThrow(() -> exceptionFactory.emailNotFound(email));
             log.info("UserRepresentation user : {} ", user);
 
             // 2. Générer un token JWT contenant l'userId
@@ -276,6 +307,8 @@ public class AuthServiceImpl implements AuthService {
 
         } catch (EmailException e) {
             throw exceptionFactory.emailServiceError(e.getMessage());*/
+        } catch (BaseCustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erreur lors de l'envoi de l'email de réinitialisation : {}", e.getMessage());
             throw exceptionFactory.internalServerError("EmailService", e);
@@ -285,13 +318,36 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public void confirmPasswordReset (HttpServletRequest request, String newPassword) {
         try {
-            String userId = extractUserIdFromJwt(request);
-            if (StringUtils.isEmpty(userId)) {
+            String resetToken = request.getParameter(RESET_TOKEN_PARAM);
+            if (StringUtils.isEmpty(resetToken)) {
+                String userId = extractUserIdFromJwt(request);
+                if (StringUtils.isEmpty(userId)) {
+                    throw exceptionFactory.invalidToken();
+                }
+                resetPassword(userId, newPassword);
+                return;
+            }
+            // Token reçu par email : signature et expiration vérifiées, puis usage unique. Le token est réservé avant
+            // l'appel à Keycloak pour écarter les rejeux concurrents, et rendu si la réinitialisation échoue.
+            Claims claims = jwtUtil.extractClaims(resetToken);
+            if (claims.getId() == null
+                    || !resetTokenRegistry.consume(claims.getId(), claims.getExpiration().toInstant())) {
                 throw exceptionFactory.invalidToken();
             }
-            resetPassword(userId, newPassword);
+            try {
+                String userId = getUserIdByEmail(claims.getSubject());
+                if (StringUtils.isEmpty(userId)) {
+                    throw exceptionFactory.invalidToken();
+                }
+                resetPassword(userId, newPassword);
+            } catch (Exception e) {
+                resetTokenRegistry.release(claims.getId());
+                throw e;
+            }
         } catch (JwtException e) {
             throw exceptionFactory.invalidToken();
+        } catch (BaseCustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erreur lors de la confirmation du reset de mot de passe : {}", e.getMessage());
             throw exceptionFactory.internalServerError("Erreur lors de la réinitialisation", e);
@@ -300,10 +356,17 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public UserRepresentation getUserByIdFromKeycloak (String userId) {
+        Optional<UserRepresentation> mirrored = keycloakUserMirrorService.findById(userId);
+        if (mirrored.isPresent()) {
+            return mirrored.get();
+        }
         try {
-            return keycloak.realm(realm).users().get(userId).toRepresentation();
+            UserResource userResource = keycloak.realm(realm).users().get(userId);
+            return keycloakGateway.call(ADMIN_READ, userResource::toRepresentation);
         } catch (NotFoundException e) {
             throw exceptionFactory.userNotFound(userId);
+        } catch (BaseCustomException e) {
+            throw e;
         } catch (Exception e) {
             log.error(
                     "Erreur lors de la récupération de l'utilisateur : {} \n errorMessage : {}",
@@ -317,52 +380,15 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public TokenResponse refreshToken (String refreshToken) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-
-            HttpPost post =
-                    new HttpPost(
-                            MessageFormat.format(
-                                    "{0}/realms/{1}/protocol/openid-connect/token",
-                                    keycloakClientConfig.getUrl(), keycloakClientConfig.getRealm()
-                            ));
-
-            List<NameValuePair> params = new ArrayList<>();
-            params.add(new BasicNameValuePair("grant_type", "refresh_token"));
-            params.add(new BasicNameValuePair("refresh_token", refreshToken));
-            params.add(new BasicNameValuePair("client_id", keycloakClientConfig.getClientId()));
-            params.add(new BasicNameValuePair("client_secret", keycloakClientConfig.getClientSecret()));
-
-            post.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
-            post.setHeader("Content-Type", "application/x-www-form-urlencoded");
-
-            try (CloseableHttpResponse response = httpClient.execute(post)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-
-                if (statusCode != 200) {
-                    String errorResponse = EntityUtils.toString(response.getEntity());
-                    log.warn("Erreur lors du refresh token : status={}, body={}", statusCode, errorResponse);
-                    throw exceptionFactory.invalidToken();
-                }
+        try {
+            return keycloakGateway.call(LOGIN, () -> keycloakTokenClient.refreshGrant(refreshToken));
 
-                String responseBody = EntityUtils.toString(response.getEntity());
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = objectMapper.readTree(responseBody);
-
-                return TokenResponse.builder()
-                        .accessToken(jsonNode.get("access_token").asText())
-                        .refreshToken(jsonNode.get("refresh_token").asText())
-                        .expiresIn(jsonNode.get("expires_in").asInt())
-                        .refreshExpiresIn(jsonNode.get("refresh_expires_in").asInt())
-                        .tokenType(jsonNode.get("token_type").asText())
-                        .notBeforePolicy(jsonNode.get("not-before-policy").asInt())
-                        .sessionState(jsonNode.get("session_state").asText())
-                        .scope(jsonNode.get("scope").asText())
-                        .build();
+        } catch (KeycloakTokenException e) {
+            log.warn("Erreur lors du refresh token : status={}, body={}", e.getStatus(), e.getBody());
+            if (e.getStatus() >= 500) {
+                throw exceptionFactory.serviceUnavailable("Keycloak");
             }
-
-        } catch (IOException e) {
-            log.error("Erreur I/O lors du rafraîchissement du token : {}", e.getMessage());
-            throw exceptionFactory.serviceUnavailable("Keycloak");
+            throw exceptionFactory.invalidToken();
         }
     }
 
@@ -372,22 +398,23 @@ public class AuthServiceImpl implements AuthService {
         log.info("roleName : {}", roleName);
         RealmResource realmResource = keycloak.realm(realm);
         UserResource userResource = realmResource.users().get(userId);
-
-        RoleRepresentation roleRepresentation = realmResource.roles().get(roleName).toRepresentation();
-        userResource.roles().realmLevel().add(Collections.singletonList(roleRepresentation));
+        UserResource userWriter = keycloakWriteClient.realm(realm).users().get(userId);
+
+        RoleResource roleResource = realmResource.roles().get(roleName);
+        RoleRepresentation roleRepresentation = keycloakGateway.call(ADMIN_READ, roleResource::toRepresentation);
+        keycloakGateway.run(ADMIN_WRITE,
+                () -> userWriter.roles().realmLevel().add(Collections.singletonList(roleRepresentation)));
+        keycloakRoleCache.invalidate(userId);
+        keycloakUserMirrorService.refresh(userId);
         log.info(
-                "userResource.roles() : {}", userResource.roles().realmLevel().listEffective().toString());
+                "userResource.roles() : {}",
+                keycloakGateway.call(ADMIN_READ, () -> userResource.roles().realmLevel().listEffective()));
     }
 
     @Override
     public UserRepresentation getUserByEmail (String email) {
-        List<UserRepresentation> users = keycloak.realm(realm)
-                .users()
-                .search(email, true);
-
-        return users.stream()
-                .filter(user -> email.equalsIgnoreCase(user.getEmail()))
-                .findFirst()
+        return keycloakUserMirrorService.findByEmail(email)
+                .or(() -> searchKeycloakByEmail(email))
                 .orElseThrow(() -> new EntityNotFoundException(MessageFormat.format("Utilisateur non trouvé dans Keycloak avec l''email : {0}", email)));
     }
 
@@ -398,12 +425,30 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public List<String> getUserRolesByKeycloakId (String keycloakId) {
-        RealmResource realmResource = keycloak.realm(realm);
-        UserResource userResource = realmResource.users().get(keycloakId);
+        return keycloakUserMirrorService.findRoles(keycloakId)
+                .orElseGet(() -> keycloakRoleCache.getRoles(keycloakId));
+    }
 
-        return userResource.roles().realmLevel().listEffective().stream()
-                .map(RoleRepresentation::getName)
-                .filter(roleName -> roleName.startsWith(ResponseMessageConstants.TONTINE_ROLE_PREFIX))
-                .collect(Collectors.toList());
+    @Override
+    public Map<String, List<String>> getUserRolesByKeycloakIds (Collection<String> keycloakIds) {
+        Map<String, List<String>> roles = new HashMap<>(keycloakUserMirrorService.findRoles(keycloakIds));
+        List<String> missing = keycloakIds.stream()
+                .filter(id -> id != null && !roles.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            roles.putAll(keycloakRoleCache.prefetch(missing));
+        }
+        return roles;
+    }
+
+    /**
+     * Recherche exacte par email directement dans Keycloak, utilisée lorsque le miroir local ne connaît pas
+     * l'utilisateur.
+     */
+    private Optional<UserRepresentation> searchKeycloakByEmail (String email) {
+        UsersResource users = keycloak.realm(realm).users();
+        return keycloakGateway.call(ADMIN_READ, () -> users.search(email, true)).stream()
+                .filter(user -> email.equalsIgnoreCase(user.getEmail()))
+                .findFirst();
     }
 }
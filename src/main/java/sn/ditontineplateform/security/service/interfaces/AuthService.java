@@ -6,7 +6,9 @@ import sn.ditontineplateform.exception.CustomException;
 import sn.ditontineplateform.security.dto.TokenResponse;
 import sn.ditontineplateform.domaine.dto.UserDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface AuthService {
 
@@ -26,6 +28,14 @@ public interface AuthService {
 
     String createKeycloakUser (UserDto request);
 
+    /**
+     * Supprime un compte Keycloak, typiquement pour annuler une création dont la suite a échoué. Un compte déjà
+     * absent n'est pas une erreur.
+     *
+     * @param userId l'identifiant Keycloak du compte
+     */
+    void deleteKeycloakUser (String userId);
+
     void sendPasswordResetEmail (String email) throws CustomException;
 
     void confirmPasswordReset (HttpServletRequest request, String newPassword) throws CustomException;
@@ -42,4 +52,12 @@ public interface AuthService {
 
     List<String> getUserRolesByKeycloakId (String keycloakId);
 
+    /**
+     * Récupère en une passe les rôles de plusieurs utilisateurs (listings paginés).
+     *
+     * @param keycloakIds les identifiants Keycloak des utilisateurs
+     * @return une map keycloakId -> rôles TONTINE_*
+     */
+    Map<String, List<String>> getUserRolesByKeycloakIds (Collection<String> keycloakIds);
+
 }
@@ -0,0 +1,104 @@
+package sn.ditontineplateform.security.token;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Registre des tokens de réinitialisation déjà consommés.
+ * <p>
+ * La table {@code consumed_reset_tokens} fait foi : l'insertion {@code ON CONFLICT DO NOTHING} réserve le token en
+ * une seule requête et détecte les rejeux, y compris concurrents ou venant d'un autre nœud. Un token réservé dont
+ * la réinitialisation échoue est rendu par {@link #release} pour que l'utilisateur puisse réessayer.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResetTokenRegistry {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO consumed_reset_tokens (token_id, expires_at)
+            VALUES (:tokenId, :expiresAt)
+            ON CONFLICT (token_id) DO NOTHING
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM consumed_reset_tokens WHERE token_id = :tokenId";
+
+    private static final String PURGE_SQL = "DELETE FROM consumed_reset_tokens WHERE expires_at <= :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private Counter consumed;
+    private Counter replays;
+    private Counter released;
+
+    @PostConstruct
+    void init () {
+        consumed = tokenCounter("consumed");
+        replays = tokenCounter("replay");
+        released = tokenCounter("released");
+    }
+
+    /**
+     * Marque le token comme consommé.
+     *
+     * @return {@code false} si le token avait déjà été consommé (rejeu)
+     */
+    public boolean consume (String tokenId, Instant expiresAt) {
+        int inserted = jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("tokenId", tokenId)
+                .addValue("expiresAt", Timestamp.from(expiresAt)));
+        if (inserted == 0) {
+            replays.increment();
+            return false;
+        }
+        consumed.increment();
+        return true;
+    }
+
+    /**
+     * Rend un token consommé dont la réinitialisation n'a pas abouti.
+     */
+    public void release (String tokenId) {
+        try {
+            if (jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("tokenId", tokenId)) > 0) {
+                released.increment();
+            }
+        } catch (Exception e) {
+            log.error("Token de réinitialisation {} non restitué : {}", tokenId, e.getMessage());
+        }
+    }
+
+    /**
+     * Purge les tokens expirés, que la vérification de signature refuse de toute façon.
+     */
+    @Scheduled(
+            initialDelayString = "${password-reset.registry.purge-interval:PT1H}",
+            fixedDelayString = "${password-reset.registry.purge-interval:PT1H}")
+    public void purge () {
+        try {
+            int purged = jdbcTemplate.update(
+                    PURGE_SQL, new MapSqlParameterSource("now", Timestamp.from(Instant.now())));
+            log.debug("{} tokens de réinitialisation expirés supprimés", purged);
+        } catch (Exception e) {
+            log.warn("Purge du registre des tokens de réinitialisation impossible : {}", e.getMessage());
+        }
+    }
+
+    private Counter tokenCounter (String outcome) {
+        return Counter.builder("password.reset.tokens")
+                .description("Tokens de réinitialisation présentés")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
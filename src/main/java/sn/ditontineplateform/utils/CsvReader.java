@@ -0,0 +1,130 @@
+package sn.ditontineplateform.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV (RFC 4180) en flux : un enregistrement à la fois, sans charger le fichier. Gère les champs entre
+ * guillemets (séparateurs, guillemets doublés et retours à la ligne inclus) et les fins de ligne CRLF ou LF.
+ */
+public final class CsvReader implements Closeable {
+
+  private static final int MAX_FIELD_LENGTH = 4096;
+
+  private final Reader reader;
+  private final char separator;
+  private final char[] buffer = new char[8192];
+  private int position;
+  private int limit;
+  private long line = 1;
+
+  public CsvReader(Reader reader, char separator) {
+    this.reader = reader;
+    this.separator = separator;
+  }
+
+  /** Numéro de la ligne physique courante (utile pour les messages d'erreur). */
+  public long line() {
+    return line;
+  }
+
+  /**
+   * Lit l'enregistrement suivant.
+   *
+   * @return les champs de l'enregistrement, ou {@code null} en fin de flux
+   * @throws IOException en cas d'erreur de lecture ou d'enregistrement mal formé
+   */
+  public List<String> next() throws IOException {
+    int c = read();
+    if (c < 0) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean afterQuote = false;
+
+    while (true) {
+      if (quoted) {
+        if (c < 0) {
+          throw new IOException("Guillemet non fermé (ligne " + line + ")");
+        }
+        if (c == '"') {
+          int following = read();
+          if (following == '"') {
+            append(field, '"');
+          } else {
+            quoted = false;
+            afterQuote = true;
+            c = following;
+            continue;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          append(field, (char) c);
+        }
+      } else if (c < 0 || c == '\n' || c == '\r') {
+        if (c == '\r' && peek() == '\n') {
+          read();
+        }
+        if (c >= 0) {
+          line++;
+        }
+        fields.add(field.toString());
+        return fields;
+      } else if (c == separator) {
+        fields.add(field.toString());
+        field.setLength(0);
+        afterQuote = false;
+      } else if (c == '"' && field.isEmpty() && !afterQuote) {
+        quoted = true;
+      } else if (afterQuote) {
+        throw new IOException("Caractère inattendu après un guillemet fermant (ligne " + line + ")");
+      } else {
+        append(field, (char) c);
+      }
+      c = read();
+    }
+  }
+
+  private void append(StringBuilder field, char c) throws IOException {
+    if (field.length() >= MAX_FIELD_LENGTH) {
+      throw new IOException("Champ trop long (ligne " + line + ")");
+    }
+    field.append(c);
+  }
+
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++];
+  }
+
+  private int peek() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  private boolean fill() throws IOException {
+    limit = reader.read(buffer, 0, buffer.length);
+    position = 0;
+    if (limit <= 0) {
+      limit = 0;
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,71 @@
+package sn.ditontineplateform.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+/**
+ * Écriture CSV (RFC 4180) ligne à ligne. Les champs contenant le séparateur, un guillemet ou un retour à la ligne
+ * sont entourés de guillemets ; {@code null} produit un champ vide.
+ * <p>
+ * Un texte commençant par {@code =}, {@code +}, {@code -}, {@code @}, une tabulation ou un retour chariot est
+ * préfixé d'une apostrophe, pour qu'un tableur ne l'évalue pas comme une formule (injection CSV). Les nombres, y
+ * compris sous forme de texte signé ({@code +221771234567}, {@code -12.5}), sont écrits tels quels : un tableur n'en
+ * tire qu'une valeur numérique.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+
+  private static final Pattern SIGNED_NUMBER = Pattern.compile("[+-]\\d+(\\.\\d+)?");
+
+  private final Writer writer;
+  private final char separator;
+
+  public CsvWriter(Writer writer, char separator) {
+    this.writer = writer;
+    this.separator = separator;
+  }
+
+  public void writeRow(Object... values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(separator);
+      }
+      if (values[i] instanceof CharSequence text) {
+        writer.write(quote(neutralize(text.toString())));
+      } else if (values[i] != null) {
+        writer.write(quote(values[i].toString()));
+      }
+    }
+    writer.write("\r\n");
+  }
+
+  private static String neutralize(String value) {
+    if (value.isEmpty() || SIGNED_NUMBER.matcher(value).matches()) {
+      return value;
+    }
+    return switch (value.charAt(0)) {
+      case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+      default -> value;
+    };
+  }
+
+  private String quote(String value) {
+    boolean needsQuotes = value.indexOf(separator) >= 0
+        || value.indexOf('"') >= 0
+        || value.indexOf('\n') >= 0
+        || value.indexOf('\r') >= 0;
+    return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
@@ -0,0 +1,43 @@
+package sn.ditontineplateform.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ETags forts dérivés de {@code BaseEntity.version} et dates {@code Last-Modified} dérivées de
+ * {@code BaseEntity.updatedAt}.
+ * <p>
+ * La version est incrémentée par Hibernate à chaque mise à jour (verrou optimiste) : deux modifications dans la même
+ * microseconde ou une horloge qui recule ne produisent jamais le même ETag, contrairement à une date. L'ETag calculé
+ * depuis une entité tout juste sauvegardée est celui relu plus tard en base. Les données qui ne sont pas en base
+ * (rôles Keycloak, ...) ne font pas partie de l'ETag ; elles sont déjà servies depuis un cache à durée de vie bornée.
+ */
+public final class EntityTags {
+
+  private EntityTags() {}
+
+  /** ETag fort (entre guillemets) d'une ressource, ou {@code null} si sa version est inconnue. */
+  public static String of(Long version) {
+    return version == null ? null : "\"" + version + "\"";
+  }
+
+  /** Date de modification en millisecondes epoch, ou {@code -1} si elle est inconnue. */
+  public static long lastModified(LocalDateTime updatedAt) {
+    return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Comparaison forte d'un en-tête {@code If-Match} (liste d'ETags ou {@code *}) avec la version courante. Un ETag
+   * faible ne correspond jamais.
+   */
+  public static boolean matches(String ifMatch, Long version) {
+    String current = of(version);
+    for (String candidate : ifMatch.split(",")) {
+      String tag = candidate.trim();
+      if ("*".equals(tag) || tag.equals(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
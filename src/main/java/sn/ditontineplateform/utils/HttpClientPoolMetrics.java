@@ -0,0 +1,33 @@
+package sn.ditontineplateform.utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/** Expose l'état d'un pool de connexions HTTP Apache sous forme de jauges Micrometer. */
+public final class HttpClientPoolMetrics {
+
+  private HttpClientPoolMetrics() {
+    throw new IllegalStateException("Utility class");
+  }
+
+  public static void bind(
+      MeterRegistry registry, String poolName, PoolingHttpClientConnectionManager pool) {
+    Gauge.builder("http.client.pool.leased", pool, p -> p.getTotalStats().getLeased())
+        .description("Connexions actuellement empruntées")
+        .tag("pool", poolName)
+        .register(registry);
+    Gauge.builder("http.client.pool.pending", pool, p -> p.getTotalStats().getPending())
+        .description("Requêtes en attente d'une connexion")
+        .tag("pool", poolName)
+        .register(registry);
+    Gauge.builder("http.client.pool.available", pool, p -> p.getTotalStats().getAvailable())
+        .description("Connexions inactives disponibles")
+        .tag("pool", poolName)
+        .register(registry);
+    Gauge.builder("http.client.pool.max", pool, p -> p.getTotalStats().getMax())
+        .description("Taille maximale du pool")
+        .tag("pool", poolName)
+        .register(registry);
+  }
+}
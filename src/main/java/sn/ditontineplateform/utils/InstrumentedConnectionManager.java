@@ -0,0 +1,69 @@
+package sn.ditontineplateform.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de connexions HTTP Apache qui mesure le temps d'attente d'une connexion ({@code http.client.pool.acquire})
+ * et compte les attentes abandonnées ({@code http.client.pool.acquire.timeouts}), en plus des jauges de
+ * {@link HttpClientPoolMetrics}.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+  private final Timer acquireTimer;
+  private final Counter acquireTimeouts;
+
+  public InstrumentedConnectionManager(
+      MeterRegistry registry, String poolName, int maxConnections, Duration timeToLive) {
+    super(timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+    setMaxTotal(maxConnections);
+    setDefaultMaxPerRoute(maxConnections);
+    setValidateAfterInactivity(2000);
+
+    this.acquireTimer = Timer.builder("http.client.pool.acquire")
+        .description("Temps d'attente d'une connexion du pool")
+        .tag("pool", poolName)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(registry);
+    this.acquireTimeouts = Counter.builder("http.client.pool.acquire.timeouts")
+        .description("Requêtes abandonnées faute de connexion disponible")
+        .tag("pool", poolName)
+        .register(registry);
+    HttpClientPoolMetrics.bind(registry, poolName, this);
+  }
+
+  @Override
+  public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+    ConnectionRequest request = super.requestConnection(route, state);
+    return new ConnectionRequest() {
+      @Override
+      public HttpClientConnection get(long timeout, TimeUnit unit)
+          throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        long start = System.nanoTime();
+        try {
+          return request.get(timeout, unit);
+        } catch (ConnectionPoolTimeoutException e) {
+          acquireTimeouts.increment();
+          throw e;
+        } finally {
+          acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+      }
+
+      @Override
+      public boolean cancel() {
+        return request.cancel();
+      }
+    };
+  }
+}
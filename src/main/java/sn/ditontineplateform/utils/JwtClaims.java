@@ -0,0 +1,23 @@
+package sn.ditontineplateform.utils;
+
+import java.util.List;
+
+/**
+ * Claims du token JWT de la requête courante, décodés une seule fois par requête.
+ *
+ * @param userId identifiant Keycloak (claim {@code sub})
+ * @param email  claim {@code email}
+ * @param roles  rôles realm ({@code realm_access.roles}), liste immuable
+ */
+public record JwtClaims(String userId, String email, List<String> roles) {
+
+  /** Claims d'une requête sans token exploitable. */
+  public static final JwtClaims EMPTY = new JwtClaims(null, null, List.of());
+
+  /** Attribut de requête sous lequel les claims sont conservés. */
+  public static final String REQUEST_ATTRIBUTE = JwtClaims.class.getName();
+
+  public JwtClaims {
+    roles = roles == null ? List.of() : List.copyOf(roles);
+  }
+}
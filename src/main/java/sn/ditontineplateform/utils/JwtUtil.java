@@ -1,13 +1,23 @@
 package sn.ditontineplateform.utils;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
+/**
+ * Émission et lecture des tokens de réinitialisation de mot de passe. La clé HMAC et le parser sont construits une
+ * fois au démarrage ; tous deux sont immuables et partagés entre threads.
+ */
 @Component
 public class JwtUtil {
 
@@ -17,21 +27,37 @@ public class JwtUtil {
   @Value("${spring.jwt.expiration}")
   private long expiration;
 
+  private Key signingKey;
+  private JwtParser parser;
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+  }
+
+  /** Génère un token portant l'email en sujet et un identifiant unique ({@code jti}) à usage unique. */
   public String generateToken(String email) {
+    long now = System.currentTimeMillis();
     return Jwts.builder()
+        .setId(UUID.randomUUID().toString())
         .setSubject(email)
-        .setIssuedAt(new Date())
-        .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+        .setIssuedAt(new Date(now))
+        .setExpiration(new Date(now + expiration))
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
   public String extractEmail(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
-        .build()
-        .parseClaimsJws(token)
-        .getBody()
-        .getSubject();
+    return extractClaims(token).getSubject();
+  }
+
+  /**
+   * Vérifie la signature et l'expiration du token et retourne ses claims.
+   *
+   * @throws io.jsonwebtoken.JwtException si le token est invalide ou expiré
+   */
+  public Claims extractClaims(String token) {
+    return parser.parseClaimsJws(token).getBody();
   }
 }
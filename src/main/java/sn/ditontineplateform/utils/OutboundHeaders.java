@@ -0,0 +1,31 @@
+package sn.ditontineplateform.utils;
+
+import java.util.Map;
+
+/**
+ * En-têtes à ajouter aux requêtes HTTP sortantes du thread courant ({@code traceparent}, ...). Posés par
+ * {@code KeycloakGateway} sur le thread qui exécute l'appel et lus par {@link OutboundHeadersInterceptor}.
+ */
+public final class OutboundHeaders {
+
+  private static final ThreadLocal<Map<String, String>> HEADERS = new ThreadLocal<>();
+
+  private OutboundHeaders() {}
+
+  public static Map<String, String> current() {
+    Map<String, String> headers = HEADERS.get();
+    return headers == null ? Map.of() : headers;
+  }
+
+  public static void set(Map<String, String> headers) {
+    if (headers == null || headers.isEmpty()) {
+      HEADERS.remove();
+    } else {
+      HEADERS.set(headers);
+    }
+  }
+
+  public static void clear() {
+    HEADERS.remove();
+  }
+}
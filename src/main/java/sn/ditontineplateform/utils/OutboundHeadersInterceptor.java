@@ -0,0 +1,17 @@
+package sn.ditontineplateform.utils;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Ajoute aux requêtes Apache HttpClient les en-têtes posés dans {@link OutboundHeaders}. Utilisé par les clients
+ * Keycloak (token et administration) pour propager le contexte de trace W3C.
+ */
+public class OutboundHeadersInterceptor implements HttpRequestInterceptor {
+
+  @Override
+  public void process(HttpRequest request, HttpContext context) {
+    OutboundHeaders.current().forEach(request::setHeader);
+  }
+}
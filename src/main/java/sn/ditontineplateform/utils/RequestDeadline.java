@@ -0,0 +1,48 @@
+package sn.ditontineplateform.utils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Échéance de la requête en cours, posée par {@code RequestDeadlineFilter}. Les appels sortants (Keycloak, ...)
+ * bornent leurs délais au temps restant plutôt qu'à leur seule configuration.
+ */
+public final class RequestDeadline {
+
+  private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+  private RequestDeadline() {}
+
+  /** Échéance absolue (horloge {@link System#nanoTime()}) du thread courant, ou {@code null}. */
+  public static Long current() {
+    return DEADLINE_NANOS.get();
+  }
+
+  /** Pose l'échéance du thread courant ; {@code null} la retire. */
+  public static void set(Long deadlineNanos) {
+    if (deadlineNanos == null) {
+      DEADLINE_NANOS.remove();
+    } else {
+      DEADLINE_NANOS.set(deadlineNanos);
+    }
+  }
+
+  public static void start(Duration budget) {
+    DEADLINE_NANOS.set(System.nanoTime() + budget.toNanos());
+  }
+
+  public static void clear() {
+    DEADLINE_NANOS.remove();
+  }
+
+  /** Temps restant avant l'échéance (éventuellement négatif), vide si aucune échéance n'est posée. */
+  public static Optional<Duration> remaining() {
+    Long deadline = DEADLINE_NANOS.get();
+    return deadline == null ? Optional.empty() : Optional.of(Duration.ofNanos(deadline - System.nanoTime()));
+  }
+
+  /** Plus petit délai entre {@code timeout} et le temps restant de la requête. */
+  public static Duration cap(Duration timeout) {
+    return remaining().filter(left -> left.compareTo(timeout) < 0).orElse(timeout);
+  }
+}
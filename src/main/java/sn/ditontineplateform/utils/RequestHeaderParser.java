@@ -2,111 +2,115 @@ package sn.ditontineplateform.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Collections;
 import java.util.List;
 
-import static sn.faydaapp.utils.ResponseMessageConstants.FAYDA_ROLE_PREFIX;
+import static sn.ditontineplateform.utils.ResponseMessageConstants.TONTINE_ROLE_PREFIX;
 
 @Slf4j
 public class RequestHeaderParser {
 
+  private static final ObjectReader JSON_READER = new ObjectMapper().reader();
+
   public static String extractUserIdFromJwt(HttpServletRequest request) {
-    String token = request.getHeader("Authorization");
-    if (token != null && token.startsWith("Bearer ")) {
-      token = token.substring(7);
-    }
+    return claims(request).userId();
+  }
 
-    if (token == null || token.isEmpty()) {
-      log.warn("Aucun token JWT trouvé dans l'en-tête");
-      return null;
-    }
+  public static List<String> extractRolesFromJwt(HttpServletRequest request) {
+    return claims(request).roles();
+  }
 
-    try {
-      String[] chunks = token.split("\\.");
-      String payload = new String(Base64.getDecoder().decode(chunks[1]));
-      ObjectMapper objectMapper = new ObjectMapper();
-      JsonNode jsonNode = objectMapper.readTree(payload);
-      return jsonNode.get("sub").asText();
-    } catch (Exception e) {
-      log.error("Erreur lors de l'extraction du userId du JWT", e);
-      return null;
-    }
+  public static boolean hasRequiredRole(List<String> roles, String roleSuffix) {
+    if (roles == null || roles.isEmpty()) return false;
+
+    String expectedRole = TONTINE_ROLE_PREFIX + roleSuffix.toUpperCase();
+    return roles.stream().anyMatch(role -> role.equalsIgnoreCase(expectedRole));
   }
 
-  public static List<String> extractRolesFromJwt(HttpServletRequest request) {
-    String token = request.getHeader("Authorization");
+  public static String extractEmailFromJwt(HttpServletRequest request) {
+    return claims(request).email();
+  }
+
+  /**
+   * Adresse IP du client. Derrière un proxy, {@code server.forward-headers-strategy} doit être activé pour que
+   * l'adresse distante reflète {@code X-Forwarded-For}.
+   */
+  public static String clientIp(HttpServletRequest request) {
+    return request == null ? null : request.getRemoteAddr();
+  }
 
-    if (token != null && token.startsWith("Bearer ")) {
-      token = token.substring(7);
+  /**
+   * Retourne les claims de la requête. Ils sont normalement posés par {@code JwtClaimsFilter} ; à défaut
+   * ils sont décodés ici puis mémorisés sur la requête.
+   */
+  public static JwtClaims claims(HttpServletRequest request) {
+    Object cached = request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE);
+    if (cached instanceof JwtClaims jwtClaims) {
+      return jwtClaims;
     }
+    JwtClaims jwtClaims = decode(extractRawToken(request));
+    request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, jwtClaims);
+    return jwtClaims;
+  }
 
+  /** Décode le payload d'un JWT sans vérifier sa signature (déjà faite par le resource server). */
+  public static JwtClaims decode(String token) {
     if (token == null || token.isEmpty()) {
       log.warn("Aucun token JWT trouvé dans l'en-tête");
-      return Collections.emptyList();
+      return JwtClaims.EMPTY;
     }
 
-    try {
-      String[] chunks = token.split("\\.");
-      String payload = new String(Base64.getDecoder().decode(chunks[1]));
-      ObjectMapper objectMapper = new ObjectMapper();
-      JsonNode jsonNode = objectMapper.readTree(payload);
-
-      JsonNode realmAccess = jsonNode.get("realm_access");
-      if (realmAccess == null || realmAccess.get("roles") == null) {
-        log.warn("Aucun champ 'roles' trouvé dans realm_access du JWT");
-        return Collections.emptyList();
-      }
-
-      List<String> roles = new ArrayList<>();
-      for (JsonNode role : realmAccess.get("roles")) {
-        roles.add(role.asText());
-      }
-
-      return roles;
+    int firstDot = token.indexOf('.');
+    int secondDot = token.indexOf('.', firstDot + 1);
+    if (firstDot < 0 || secondDot < 0) {
+      log.warn("Token JWT mal formé");
+      return JwtClaims.EMPTY;
+    }
 
+    try {
+      byte[] payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot));
+      JsonNode jsonNode = JSON_READER.readTree(payload);
+
+      JsonNode sub = jsonNode.get("sub");
+      JsonNode email = jsonNode.get("email");
+      return new JwtClaims(
+          sub != null ? sub.asText() : null,
+          email != null ? email.asText() : null,
+          readRealmRoles(jsonNode));
     } catch (Exception e) {
-      log.error("Erreur lors de l'extraction des rôles du JWT", e);
-      return Collections.emptyList();
+      log.error("Erreur lors du décodage du JWT", e);
+      return JwtClaims.EMPTY;
     }
   }
 
-  public static boolean hasRequiredRole(List<String> roles, String roleSuffix) {
-    if (roles == null || roles.isEmpty()) return false;
-
-    String expectedRole = FAYDA_ROLE_PREFIX + roleSuffix.toUpperCase();
-    return roles.stream().anyMatch(role -> role.equalsIgnoreCase(expectedRole));
-  }
-
-  public static String extractEmailFromJwt(HttpServletRequest request) {
-    String token = extractRawToken(request);
-    if (token == null) return null;
-
-    try {
-      String[] chunks = token.split("\\.");
-      String payload = new String(Base64.getDecoder().decode(chunks[1]));
-      ObjectMapper objectMapper = new ObjectMapper();
-      JsonNode jsonNode = objectMapper.readTree(payload);
-
-      JsonNode emailNode = jsonNode.get("email");
-      return emailNode != null ? emailNode.asText() : null;
+  private static List<String> readRealmRoles(JsonNode jsonNode) {
+    JsonNode realmAccess = jsonNode.get("realm_access");
+    if (realmAccess == null || realmAccess.get("roles") == null) {
+      log.warn("Aucun champ 'roles' trouvé dans realm_access du JWT");
+      return List.of();
+    }
 
-    } catch (Exception e) {
-      log.error("Erreur lors de l'extraction de l'email du JWT", e);
-      return null;
+    List<String> roles = new ArrayList<>();
+    for (JsonNode role : realmAccess.get("roles")) {
+      roles.add(role.asText());
     }
+    return roles;
   }
 
-  private static String extractRawToken(HttpServletRequest request) {
-    String token = request.getHeader("Authorization");
-    if (token != null && token.startsWith("Bearer ")) {
-      return token.substring(7);
+  /**
+   * Token porté par l'en-tête {@code Authorization: Bearer ...} ; {@code null} pour tout autre schéma (Basic, token
+   * sans préfixe) ou en l'absence d'en-tête.
+   */
+  static String extractRawToken(HttpServletRequest request) {
+    String token = request.getHeader(ResponseMessageConstants.AUTHORIZATION);
+    if (token != null && token.startsWith(ResponseMessageConstants.BEARER)) {
+      return token.substring(ResponseMessageConstants.BEGIN_INDEX);
     }
-    log.warn("Aucun token JWT trouvé dans l'en-tête Authorization");
     return null;
   }
 }
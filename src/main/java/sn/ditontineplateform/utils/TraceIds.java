@@ -0,0 +1,42 @@
+package sn.ditontineplateform.utils;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identifiants de trace exposés dans les réponses et les erreurs.
+ * <p>
+ * L'identifiant vient de la trace W3C en cours, posé dans le MDC par Micrometer Tracing. Hors trace (thread de
+ * fond, requête non instrumentée), un identifiant au même format est tiré de {@link ThreadLocalRandom} : il ne sert
+ * qu'à corréler les logs, un générateur cryptographique n'apporte rien ici.
+ */
+public final class TraceIds {
+
+  public static final String MDC_TRACE_ID = "traceId";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private TraceIds() {}
+
+  /** Identifiant de la trace courante, ou un nouvel identifiant aléatoire de 32 caractères hexadécimaux. */
+  public static String current() {
+    String traceId = MDC.get(MDC_TRACE_ID);
+    return traceId == null || traceId.isEmpty() ? random() : traceId;
+  }
+
+  public static String random() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    char[] id = new char[32];
+    writeHex(id, 0, random.nextLong());
+    writeHex(id, 16, random.nextLong());
+    return new String(id);
+  }
+
+  private static void writeHex(char[] target, int offset, long value) {
+    for (int i = 15; i >= 0; i--) {
+      target[offset + i] = HEX[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+  }
+}
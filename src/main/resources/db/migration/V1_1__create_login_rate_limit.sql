@@ -0,0 +1,9 @@
+-- État partagé du limiteur de connexions (GCRA) : une ligne par clé (utilisateur ou IP).
+-- tat = "theoretical arrival time" en millisecondes epoch ; une ligne dont tat est passé correspond à un seau plein.
+CREATE TABLE IF NOT EXISTS login_rate_limit
+(
+    bucket_key VARCHAR(320) PRIMARY KEY,
+    tat        BIGINT       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_rate_limit_tat ON login_rate_limit (tat);
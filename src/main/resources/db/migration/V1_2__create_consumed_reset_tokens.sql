@@ -0,0 +1,8 @@
+-- Identifiants (jti) des tokens de réinitialisation déjà utilisés, conservés jusqu'à leur expiration.
+CREATE TABLE IF NOT EXISTS consumed_reset_tokens
+(
+    token_id   VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_consumed_reset_tokens_expires_at ON consumed_reset_tokens (expires_at);
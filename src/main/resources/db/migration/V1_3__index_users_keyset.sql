@@ -0,0 +1,10 @@
+-- Index du listing par curseur (created_at, id) des utilisateurs actifs.
+-- La table est créée par Hibernate : l'index n'est posé que si elle existe déjà.
+DO
+$$
+    BEGIN
+        IF to_regclass('users') IS NOT NULL THEN
+            CREATE INDEX IF NOT EXISTS idx_users_active_created_at_id ON users (created_at, id) WHERE is_active;
+        END IF;
+    END
+$$;
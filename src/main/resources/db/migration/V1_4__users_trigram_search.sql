@@ -0,0 +1,14 @@
+-- Recherche approchée des utilisateurs (nom, email, téléphone) par index trigrammes.
+-- Les index GIN gin_trgm_ops servent les LIKE 'x%' comme les LIKE '%x%'.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DO
+$$
+    BEGIN
+        IF to_regclass('users') IS NOT NULL THEN
+            CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (lower(full_name) gin_trgm_ops);
+            CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+            CREATE INDEX IF NOT EXISTS idx_users_telephone_trgm ON users USING gin (telephone gin_trgm_ops);
+        END IF;
+    END
+$$;
@@ -0,0 +1,17 @@
+-- Colonne de version (verrouillage optimiste) sur toutes les tables d'entités.
+-- Les tables absentes sont créées plus tard par Hibernate avec la colonne.
+DO
+$$
+    DECLARE
+        entity_table text;
+    BEGIN
+        FOREACH entity_table IN ARRAY ARRAY ['users', 'tontines', 'participations', 'paiements', 'coffres',
+            'transactions_coffre', 'jackpots', 'notifications']
+            LOOP
+                IF to_regclass(entity_table) IS NOT NULL THEN
+                    EXECUTE format('ALTER TABLE %I ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0',
+                                   entity_table);
+                END IF;
+            END LOOP;
+    END
+$$;
@@ -0,0 +1,33 @@
+-- Compteurs de participations par statut sur les tontines, initialisés depuis les participations existantes.
+DO
+$$
+    BEGIN
+        IF to_regclass('tontines') IS NOT NULL THEN
+            ALTER TABLE tontines
+                ADD COLUMN IF NOT EXISTS nombre_participants_actifs integer NOT NULL DEFAULT 0,
+                ADD COLUMN IF NOT EXISTS nombre_participants_en_attente integer NOT NULL DEFAULT 0,
+                ADD COLUMN IF NOT EXISTS nombre_participants_suspendus integer NOT NULL DEFAULT 0,
+                ADD COLUMN IF NOT EXISTS nombre_participants_termines integer NOT NULL DEFAULT 0,
+                ADD COLUMN IF NOT EXISTS nombre_participants_exclus integer NOT NULL DEFAULT 0;
+
+            IF to_regclass('participations') IS NOT NULL THEN
+                UPDATE tontines t
+                SET nombre_participants_actifs     = c.actifs,
+                    nombre_participants_en_attente = c.en_attente,
+                    nombre_participants_suspendus  = c.suspendus,
+                    nombre_participants_termines   = c.termines,
+                    nombre_participants_exclus     = c.exclus
+                FROM (SELECT tontine_id,
+                             count(*) FILTER (WHERE statut = 'ACTIVE')     AS actifs,
+                             count(*) FILTER (WHERE statut = 'EN_ATTENTE') AS en_attente,
+                             count(*) FILTER (WHERE statut = 'SUSPENDUE')  AS suspendus,
+                             count(*) FILTER (WHERE statut = 'TERMINEE')   AS termines,
+                             count(*) FILTER (WHERE statut = 'EXCLUE')     AS exclus
+                      FROM participations
+                      WHERE is_deleted = false
+                      GROUP BY tontine_id) c
+                WHERE t.id = c.tontine_id;
+            END IF;
+        END IF;
+    END
+$$;
@@ -0,0 +1,37 @@
+-- Agrégats de cotisation par tontine et par cycle, tenus à jour de façon incrémentale par l'application.
+CREATE TABLE IF NOT EXISTS tontine_cycle_aggregates
+(
+    tontine_id        uuid           NOT NULL,
+    numero_cycle      integer        NOT NULL,
+    montant_attendu   numeric(17, 2) NOT NULL DEFAULT 0,
+    montant_collecte  numeric(17, 2) NOT NULL DEFAULT 0,
+    montant_penalites numeric(17, 2) NOT NULL DEFAULT 0,
+    nombre_payes      integer        NOT NULL DEFAULT 0,
+    nombre_retards    integer        NOT NULL DEFAULT 0,
+    updated_at        timestamptz    NOT NULL DEFAULT now(),
+    PRIMARY KEY (tontine_id, numero_cycle)
+);
+
+-- Initialisation depuis les paiements existants
+DO
+$$
+    BEGIN
+        IF to_regclass('paiements') IS NOT NULL THEN
+            INSERT INTO tontine_cycle_aggregates (tontine_id, numero_cycle, montant_attendu, montant_collecte,
+                                                  montant_penalites, nombre_payes, nombre_retards)
+            SELECT tontine_id,
+                   numero_cycle,
+                   coalesce(sum(montant) FILTER (WHERE statut <> 'ANNULE'), 0),
+                   coalesce(sum(montant) FILTER (WHERE statut = 'CONFIRME'), 0),
+                   coalesce(sum(coalesce(montant_penalite, 0)) FILTER (WHERE statut = 'CONFIRME'), 0),
+                   count(*) FILTER (WHERE statut = 'CONFIRME'),
+                   count(*) FILTER (WHERE statut = 'CONFIRME' AND jours_retard > 0)
+            FROM paiements
+            WHERE type_paiement = 'COTISATION'
+              AND numero_cycle IS NOT NULL
+              AND is_deleted = false
+            GROUP BY tontine_id, numero_cycle
+            ON CONFLICT (tontine_id, numero_cycle) DO NOTHING;
+        END IF;
+    END
+$$;
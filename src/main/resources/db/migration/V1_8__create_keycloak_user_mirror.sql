@@ -0,0 +1,17 @@
+-- Miroir local des utilisateurs Keycloak et de leurs rôles realm TONTINE_* effectifs (KeycloakUserMirror).
+-- Les installations où Hibernate a déjà créé la table la conservent telle quelle.
+CREATE TABLE IF NOT EXISTS keycloak_user_mirror
+(
+    id                VARCHAR(36) PRIMARY KEY,
+    username          VARCHAR(255) NOT NULL,
+    email             VARCHAR(255),
+    first_name        VARCHAR(255),
+    last_name         VARCHAR(255),
+    enabled           BOOLEAN      NOT NULL,
+    email_verified    BOOLEAN      NOT NULL,
+    created_timestamp BIGINT,
+    roles             JSONB        NOT NULL DEFAULT '[]'::jsonb,
+    synced_at         TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_keycloak_user_mirror_email ON keycloak_user_mirror (email);
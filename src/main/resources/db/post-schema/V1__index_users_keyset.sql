@@ -0,0 +1,3 @@
+-- Index du listing par curseur (created_at, id) des utilisateurs actifs (findFirstActiveSummaries,
+-- findActiveSummariesAfter). Remplace V1_3, sans effet sur une base neuve où users n'existait pas encore.
+CREATE INDEX IF NOT EXISTS idx_users_active_created_at_id ON users (created_at, id) WHERE is_active;
@@ -0,0 +1,7 @@
+-- Index trigrammes de la recherche approchée des utilisateurs (searchActiveSummaries : LIKE et similarity).
+-- Remplace V1_4, sans effet sur une base neuve où users n'existait pas encore.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (lower(full_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_telephone_trgm ON users USING gin (telephone gin_trgm_ops);
@@ -0,0 +1,98 @@
+package sn.ditontineplateform.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import sn.ditontineplateform.utils.RequestHeaderParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de lecture de sub, email et rôles d'une requête : décodage du JWT à chaque helper (implémentation d'origine,
+ * recopiée ici) contre décodage unique mémorisé sur la requête ({@link RequestHeaderParser#claims}).
+ * <p>
+ * Lancement : {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} puis
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main JwtClaimsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtClaimsBenchmark {
+
+    private String authorization;
+
+    // Payload choisi pour que Base64 standard (chemin d'origine) et base64url (chemin actuel) l'encodent à l'identique
+    @Setup
+    public void setUp () {
+        String payload = """
+                {"exp":1760000000,"iat":1759996400,"jti":"b1f0c7a2","iss":"https://auth.ditontine.sn/realms/ditontine",
+                "sub":"5f0e7c1e-8f4b-4c1a-9d55-2a1d3c8e9b10","typ":"Bearer","azp":"ditontine-app",
+                "email":"awa.diop@ditontine.sn","email_verified":true,"preferred_username":"awa.diop",
+                "realm_access":{"roles":["TONTINE_USER","TONTINE_ADMIN","offline_access","uma_authorization"]},
+                "scope":"openid profile email"}""";
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        authorization = "Bearer "
+                + encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
+
+    @Benchmark
+    public void perCallParsing (Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = request();
+        blackhole.consume(legacyNode(request).get("sub").asText());
+        blackhole.consume(legacyRoles(legacyNode(request)));
+        blackhole.consume(legacyNode(request).get("email").asText());
+    }
+
+    @Benchmark
+    public void requestScopedClaims (Blackhole blackhole) {
+        MockHttpServletRequest request = request();
+        blackhole.consume(RequestHeaderParser.extractUserIdFromJwt(request));
+        blackhole.consume(RequestHeaderParser.extractRolesFromJwt(request));
+        blackhole.consume(RequestHeaderParser.extractEmailFromJwt(request));
+    }
+
+    private MockHttpServletRequest request () {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    /** Découpage regex, Base64 et nouvel ObjectMapper à chaque appel, comme les helpers d'origine. */
+    private static JsonNode legacyNode (MockHttpServletRequest request) throws Exception {
+        String token = request.getHeader("Authorization");
+        if (token != null && token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+        String[] chunks = token.split("\\.");
+        String payload = new String(Base64.getDecoder().decode(chunks[1]));
+        return new ObjectMapper().readTree(payload);
+    }
+
+    private static List<String> legacyRoles (JsonNode jsonNode) {
+        List<String> roles = new ArrayList<>();
+        for (JsonNode role : jsonNode.get("realm_access").get("roles")) {
+            roles.add(role.asText());
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,123 @@
+package sn.ditontineplateform.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import sn.ditontineplateform.config.MessageConvertersConfig;
+import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.response.CustomResponse;
+import sn.ditontineplateform.response.LeanResponseAdvice;
+import sn.ditontineplateform.utils.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Taille et temps de sérialisation d'une page de 20 utilisateurs dans l'enveloppe {@link CustomResponse} : JSON contre
+ * CBOR, enveloppe complète contre enveloppe allégée ({@link LeanResponseAdvice}). Les mappers sont ceux qui servent
+ * les réponses : l'{@code ObjectMapper} de la configuration Jackson de Boot et celui du convertisseur CBOR de
+ * {@link MessageConvertersConfig}.
+ * <p>
+ * Les tailles (brute et gzip) sont affichées au démarrage de chaque combinaison ; le temps mesuré est celui de
+ * {@code writeValueAsBytes}.
+ * <p>
+ * Lancement : {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} puis
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main ResponseFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"full", "lean"})
+    private String envelope;
+
+    private ObjectMapper mapper;
+    private CustomResponse response;
+
+    @Setup
+    public void setUp () throws IOException {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(JacksonAutoConfiguration.class, MessageConvertersConfig.class)) {
+            mapper = "cbor".equals(format)
+                    ? context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper()
+                    : context.getBean(ObjectMapper.class);
+        }
+        response = page();
+        if ("lean".equals(envelope)) {
+            LeanResponseAdvice advice = new LeanResponseAdvice();
+            ReflectionTestUtils.setField(advice, "lean", true);
+            response = (CustomResponse) advice.beforeBodyWrite(response, null, null, null, null, null);
+        }
+        byte[] raw = mapper.writeValueAsBytes(response);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(raw);
+        }
+        System.out.printf("%n%s/%s : %d octets, %d octets gzip%n", format, envelope, raw.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] serialize () throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    private static CustomResponse page () {
+        List<UserDto> users = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UserDto user = new UserDto();
+            user.setUserId(UUID.nameUUIDFromBytes(("membre-" + i).getBytes()));
+            user.setFirstName("Membre " + i);
+            user.setEmail("membre" + i + "@ditontine.sn");
+            user.setPhoneNumber(String.format("+22177%07d", i));
+            user.setExternalId(UUID.nameUUIDFromBytes(("kc-" + i).getBytes()).toString());
+            user.setDateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i * 97L));
+            user.setActive(true);
+            user.setEmailVerified(i % 2 == 0);
+            user.setCreatedAt(Instant.parse("2025-01-01T08:00:00Z").plusSeconds(i * 3_600L));
+            user.setUpdatedAt(Instant.parse("2025-03-01T08:00:00Z").plusSeconds(i * 3_600L));
+            user.setRoles(List.of("TONTINE_USER"));
+            users.add(user);
+        }
+        return CustomResponse.builder()
+                .statusCodeValue(HttpStatus.OK.value())
+                .status(Constants.Message.SUCCESS_BODY)
+                .code("USERS_RETRIEVED")
+                .message("Liste des utilisateurs récupérée avec succès")
+                .developerMessage("La liste des utilisateurs par curseur a reussie avec succés")
+                .data(users)
+                .timestamp(LocalDateTime.now())
+                .traceId("4bf92f3577b34da6a3ce929d0e0e4736")
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package sn.ditontineplateform.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.ditontineplateform.domaine.entity.CycleContribution;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.enumeration.MethodePaiement;
+import sn.ditontineplateform.domaine.enumeration.TypeTirage;
+import sn.ditontineplateform.domaine.enumeration.TypeTontine;
+import sn.ditontineplateform.domaine.repository.CycleAggregateRepository;
+import sn.ditontineplateform.domaine.schedule.TontineScheduleEngine;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération de l'échéancier à l'activation ({@link TontineScheduleEngine#planifier}) : {@code n} participants
+ * actifs donnent {@code n} cycles, soit {@code n²} cotisations et {@code n} jackpots écrits en lots JDBC. L'objectif
+ * est de rester bien en dessous d'une seconde, la génération s'exécutant dans la transaction d'activation.
+ * <p>
+ * Base H2 en mémoire (mode PostgreSQL), chaque planification est annulée en fin de transaction (le rollback est donc
+ * compté) ; l'upsert des agrégats de cycle ({@code ON CONFLICT}, un seul lot de {@code n} lignes) n'existe pas sous
+ * H2 et n'est pas mesuré.
+ * <p>
+ * Lancement : {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} puis
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main TontineScheduleBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TontineScheduleBenchmark {
+
+    private static final String SCHEMA = """
+            CREATE TABLE participations (
+                id uuid PRIMARY KEY, tontine_id uuid NOT NULL, statut varchar(50) NOT NULL,
+                montant_cotisation numeric(15, 2), position_tirage integer, date_acceptation timestamp,
+                date_demande timestamp NOT NULL, is_deleted boolean NOT NULL DEFAULT false);
+            CREATE TABLE paiements (
+                id uuid PRIMARY KEY, is_deleted boolean NOT NULL, version bigint, created_at timestamp,
+                updated_at timestamp, participation_id uuid, tontine_id uuid NOT NULL, montant numeric(15, 2) NOT NULL,
+                methode_paiement varchar(50) NOT NULL, type_paiement varchar(50) NOT NULL, statut varchar(50) NOT NULL,
+                date_echeance date, numero_cycle integer, montant_penalite numeric(15, 2), jours_retard integer,
+                frais_transaction numeric(15, 2), is_automatique boolean, tentative integer);
+            CREATE INDEX idx_paiements_tontine ON paiements (tontine_id, type_paiement);
+            CREATE TABLE jackpots (
+                id uuid PRIMARY KEY, is_deleted boolean NOT NULL, version bigint, created_at timestamp,
+                updated_at timestamp, tontine_id uuid NOT NULL, beneficiaire_id uuid NOT NULL,
+                numero_cycle integer NOT NULL, montant numeric(15, 2) NOT NULL, date_distribution date,
+                statut varchar(50) NOT NULL, frais_gestion numeric(15, 2), penalites_deduites numeric(15, 2),
+                montant_net numeric(15, 2), is_prioritaire boolean, jours_notification integer);
+            """;
+
+    private static final String INSERT_PARTICIPATION_SQL = """
+            INSERT INTO participations (id, tontine_id, statut, montant_cotisation, date_demande)
+            VALUES (?, ?, 'ACTIVE', NULL, ?)
+            """;
+
+    @Param({"12", "50", "200"})
+    private int participants;
+
+    private TontineScheduleEngine engine;
+    private TransactionTemplate transactionTemplate;
+    private Tontine tontine;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:schedule" + participants + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "", true);
+        dataSource.setAutoCommit(true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(SCHEMA);
+
+        tontine = new Tontine();
+        tontine.setId(UUID.randomUUID());
+        tontine.setType(TypeTontine.CLASSIQUE);
+        tontine.setTypeTirage(TypeTirage.ALEATOIRE);
+        tontine.setNombreMaxParticipants(participants);
+        tontine.setDateDebut(LocalDate.of(2026, 1, 5));
+        tontine.setFrequenceCotisationJours(30);
+        tontine.setMontantCotisation(new BigDecimal("10000"));
+        Timestamp demande = Timestamp.valueOf(LocalDateTime.of(2025, 12, 1, 9, 0));
+        jdbcTemplate.batchUpdate(INSERT_PARTICIPATION_SQL, Collections.nCopies(participants, 0), participants,
+                (ps, ignored) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, tontine.getId());
+                    ps.setTimestamp(3, demande);
+                });
+
+        engine = new TontineScheduleEngine(jdbcTemplate, new NoAggregates(), null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "batchSize", 1000);
+        ReflectionTestUtils.setField(engine, "defaultPaymentMethod", MethodePaiement.ORANGE_MONEY);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Benchmark
+    public int planifier () {
+        return transactionTemplate.execute(status -> {
+            int cotisations = engine.planifier(tontine);
+            status.setRollbackOnly();
+            return cotisations;
+        });
+    }
+
+    /** Agrégats non mesurés : l'upsert PostgreSQL n'a pas d'équivalent H2. */
+    private static final class NoAggregates extends CycleAggregateRepository {
+
+        NoAggregates () {
+            super(null);
+        }
+
+        @Override
+        public void appliquerTous (List<CycleContribution> deltas) {
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package sn.ditontineplateform.benchmark;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import sn.ditontineplateform.domaine.dto.UserDto;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
+import sn.ditontineplateform.domaine.entity.Coffre;
+import sn.ditontineplateform.domaine.entity.Jackpot;
+import sn.ditontineplateform.domaine.entity.Notification;
+import sn.ditontineplateform.domaine.entity.Paiement;
+import sn.ditontineplateform.domaine.entity.Participation;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.entity.TransactionCoffre;
+import sn.ditontineplateform.domaine.entity.User;
+import sn.ditontineplateform.domaine.mapper.UserMapper;
+import sn.ditontineplateform.domaine.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'une page d'utilisateurs actifs, du SQL au {@code UserDto} : entités {@code User} hydratées puis
+ * {@code UserMapper.toDto(User)} (chemin d'origine des endpoints de liste), projection par interface matérialisée
+ * comme le fait Spring Data (Tuple, map puis proxy), et projection {@link UserRepository#SUMMARY_SELECT} construite
+ * par {@code select new}.
+ * <p>
+ * Base H2 en mémoire (mode PostgreSQL) : les temps d'accès réseau et disque de Postgres ne sont pas mesurés, seul
+ * l'écart de coût côté application (hydratation, contexte de persistance, colonnes lues) l'est. L'option
+ * {@code -prof gc} de JMH donne en plus les octets alloués par page.
+ * <p>
+ * Lancement : {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} puis
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main UserReadPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 2_000;
+
+    private static final String ENTITY_PAGE = "from User u where u.isActive = true order by u.createdAt asc, u.id asc";
+
+    private static final String ALIASED_PAGE = """
+            select u.id as id, u.fullName as fullName, u.email as email, u.telephone as telephone,
+                   u.keycloakId as keycloakId, u.dateNaissance as dateNaissance, u.isActive as isActive,
+                   u.emailVerified as emailVerified, u.phoneVerified as phoneVerified,
+                   u.profileImageUrl as profileImageUrl, u.createdAt as createdAt, u.updatedAt as updatedAt,
+                   u.version as version
+            from User u
+            where u.isActive = true order by u.createdAt asc, u.id asc
+            """;
+
+    private static final String PROJECTION_PAGE =
+            UserRepository.SUMMARY_SELECT + "where u.isActive = true order by u.createdAt asc, u.id asc";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private AnnotationConfigApplicationContext context;
+    private SessionFactory sessionFactory;
+    private UserMapper userMapper;
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        // Les mappers générés par MapStruct, et les listeners d'entités instanciés par Spring comme dans l'application
+        context = new AnnotationConfigApplicationContext("sn.ditontineplateform.domaine.mapper");
+        userMapper = context.getBean(UserMapper.class);
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Tontine.class)
+                .addAnnotatedClass(Participation.class)
+                .addAnnotatedClass(Paiement.class)
+                .addAnnotatedClass(Jackpot.class)
+                .addAnnotatedClass(Notification.class)
+                .addAnnotatedClass(Coffre.class)
+                .addAnnotatedClass(TransactionCoffre.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:users;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                        "org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl");
+        configuration.getProperties().put(
+                AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(context.getBeanFactory()));
+        sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 8, 0);
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setFullName("Membre " + i);
+                user.setEmail("membre" + i + "@ditontine.sn");
+                user.setTelephone(String.format("77%07d", i));
+                user.setMotDePasse("motdepasse-chiffre-" + i);
+                user.setKeycloakId("kc-" + i);
+                user.setDateNaissance(LocalDate.of(1990, 1, 1).plusDays(i));
+                user.setProfession("Commerçante");
+                user.setCreatedAt(createdAt.plusMinutes(i));
+                user.setUpdatedAt(createdAt.plusMinutes(i));
+                session.persist(user);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        sessionFactory.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDto> entityPage () {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(ENTITY_PAGE, User.class)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(userMapper::toDto)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> interfaceProjectionPage () {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(ALIASED_PAGE, Tuple.class)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(tuple -> projectionFactory.createProjection(SummaryRow.class, asMap(tuple)))
+                    .map(row -> userMapper.toDto(new UserSummaryView(row.getId(), row.getFullName(), row.getEmail(),
+                            row.getTelephone(), row.getKeycloakId(), row.getDateNaissance(), row.getIsActive(),
+                            row.getEmailVerified(), row.getPhoneVerified(), row.getProfileImageUrl(),
+                            row.getCreatedAt(), row.getUpdatedAt(), row.getVersion())))
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> constructorProjectionPage () {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(PROJECTION_PAGE, UserSummaryView.class)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(userMapper::toDto)
+                    .toList();
+        }
+    }
+
+    // Conversion Tuple -> map -> proxy, comme le TupleConverter de Spring Data pour une projection par interface
+    private static Map<String, Object> asMap (Tuple tuple) {
+        Map<String, Object> values = new HashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            values.put(element.getAlias(), tuple.get(element));
+        }
+        return values;
+    }
+
+    /** Projection par interface utilisée avant le passage à {@code select new}. */
+    public interface SummaryRow {
+
+        UUID getId ();
+
+        String getFullName ();
+
+        String getEmail ();
+
+        String getTelephone ();
+
+        String getKeycloakId ();
+
+        LocalDate getDateNaissance ();
+
+        Boolean getIsActive ();
+
+        Boolean getEmailVerified ();
+
+        Boolean getPhoneVerified ();
+
+        String getProfileImageUrl ();
+
+        LocalDateTime getCreatedAt ();
+
+        LocalDateTime getUpdatedAt ();
+
+        Long getVersion ();
+    }
+}
@@ -0,0 +1,74 @@
+package sn.ditontineplateform.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageConvertersConfigTest {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    public record Sample(LocalDate dateOfBirth, Instant createdAt) {
+    }
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class, WebMvcAutoConfiguration.class))
+            .withUserConfiguration(MessageConvertersConfig.class);
+
+    @Test
+    void cborRequestsUseTheBootConfiguredConverter () {
+        contextRunner.run(context -> {
+            List<HttpMessageConverter<?>> converters =
+                    context.getBean(RequestMappingHandlerAdapter.class).getMessageConverters();
+            MappingJackson2CborHttpMessageConverter bean = context.getBean(MappingJackson2CborHttpMessageConverter.class);
+
+            HttpMessageConverter<?> selected = converters.stream()
+                    .filter(converter -> converter.canWrite(Sample.class, CBOR))
+                    .findFirst()
+                    .orElseThrow();
+
+            // HttpMessageConverters garde le convertisseur CBOR par défaut, placé derrière le bean qui le remplace
+            assertSame(bean, selected);
+            assertTrue(converters.indexOf(bean) > converters.indexOf(converters.stream()
+                    .filter(converter -> converter.canWrite(Sample.class, MediaType.APPLICATION_JSON))
+                    .findFirst()
+                    .orElseThrow()));
+        });
+    }
+
+    @Test
+    void cborWritesDatesAsIsoStrings () {
+        contextRunner.run(context -> {
+            MappingJackson2CborHttpMessageConverter converter =
+                    context.getBean(MappingJackson2CborHttpMessageConverter.class);
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+            converter.write(new Sample(LocalDate.of(1990, 1, 1), Instant.parse("2025-01-01T08:00:00Z")), CBOR, output);
+
+            JsonNode written = new ObjectMapper(new CBORFactory()).readTree(output.getBodyAsBytes());
+            assertEquals("1990-01-01", written.get("dateOfBirth").asText());
+            assertEquals("2025-01-01T08:00:00Z", written.get("createdAt").asText());
+            assertTrue(written.get("createdAt").isTextual());
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package sn.ditontineplateform.domaine.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import sn.ditontineplateform.domaine.dto.UserSummaryView;
+import sn.ditontineplateform.domaine.entity.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UserCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID id = UUID.randomUUID();
+    private UserCache cache;
+
+    @BeforeEach
+    void setUp () {
+        cache = new UserCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+    }
+
+    private UserSummaryView view (String email) {
+        return new UserSummaryView(id, "Awa Diop", email, "771234567", "kc-1", null, true, true, false, null,
+                LocalDateTime.of(2025, 1, 1, 8, 0), LocalDateTime.of(2025, 1, 1, 8, 0), 0L);
+    }
+
+    private User entity (String email) {
+        User user = new User();
+        user.setId(id);
+        user.setKeycloakId("kc-1");
+        user.setEmail(email);
+        return user;
+    }
+
+    @Test
+    void secondaryKeysResolveToTheCachedSnapshot () {
+        UserSummaryView loaded = view("awa@ditontine.sn");
+        cache.getById(id, () -> Optional.of(loaded));
+
+        assertSame(loaded, cache.getByEmail(" AWA@ditontine.sn", Optional::empty).orElseThrow());
+        assertSame(loaded, cache.getByExternalId("kc-1", Optional::empty).orElseThrow());
+    }
+
+    @Test
+    void evictRemovesAllKeys () {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getById(id, () -> {
+            loads.incrementAndGet();
+            return Optional.of(view("awa@ditontine.sn"));
+        });
+
+        cache.evict(entity("awa@ditontine.sn"));
+
+        assertEquals(Optional.empty(), cache.getByEmail("awa@ditontine.sn", Optional::empty));
+        assertEquals(Optional.empty(), cache.getByExternalId("kc-1", Optional::empty));
+        cache.getById(id, () -> {
+            loads.incrementAndGet();
+            return Optional.of(view("awa@ditontine.sn"));
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsServedButNotCached () {
+        UserSummaryView stale = view("ancien@ditontine.sn");
+
+        // La lecture a commencé avant l'éviction (par exemple avant le commit de la mise à jour)
+        UserSummaryView served = cache.getById(id, () -> {
+            cache.evict(entity("nouveau@ditontine.sn"));
+            return Optional.of(stale);
+        }).orElseThrow();
+
+        assertSame(stale, served);
+        UserSummaryView fresh = view("nouveau@ditontine.sn");
+        assertSame(fresh, cache.getById(id, () -> Optional.of(fresh)).orElseThrow());
+        assertEquals(1.0, meterRegistry.get("users.cache.discarded_loads").counter().count());
+    }
+}
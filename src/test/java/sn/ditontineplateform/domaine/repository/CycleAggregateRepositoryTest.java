@@ -0,0 +1,190 @@
+package sn.ditontineplateform.domaine.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import sn.ditontineplateform.domaine.dto.CycleAggregateDto;
+import sn.ditontineplateform.domaine.entity.CycleContribution;
+import sn.ditontineplateform.domaine.entity.Paiement;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.enumeration.StatutPaiement;
+import sn.ditontineplateform.domaine.enumeration.TypePaiement;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Agrégats par cycle sur PostgreSQL (upsert {@code ON CONFLICT} et {@code LOCK TABLE} n'existent pas sous H2).
+ * Ignoré sans Docker.
+ */
+class CycleAggregateRepositoryTest {
+
+    // Colonnes de paiements lues par la reconstruction
+    private static final String PAIEMENTS_DDL = """
+            CREATE TABLE paiements (
+                id uuid PRIMARY KEY,
+                tontine_id uuid NOT NULL,
+                montant numeric(15, 2) NOT NULL,
+                type_paiement varchar(50) NOT NULL,
+                statut varchar(50) NOT NULL,
+                numero_cycle integer,
+                montant_penalite numeric(15, 2),
+                jours_retard integer,
+                is_deleted boolean NOT NULL DEFAULT false
+            )
+            """;
+
+    private static final String INSERT_PAIEMENT_SQL = """
+            INSERT INTO paiements (id, tontine_id, montant, type_paiement, statut, numero_cycle, montant_penalite,
+                                   jours_retard)
+            VALUES (:id, :tontineId, :montant, 'COTISATION', :statut, :numeroCycle, :penalite, :joursRetard)
+            """;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    private final UUID tontineId = UUID.randomUUID();
+    private CycleAggregateRepository repository;
+
+    @BeforeAll
+    static void startDatabase () throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker indisponible");
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.getJdbcTemplate().execute(PAIEMENTS_DDL);
+        jdbcTemplate.getJdbcTemplate().execute(new ClassPathResource(
+                "db/migration/V1_7__create_tontine_cycle_aggregates.sql").getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @AfterAll
+    static void stopDatabase () {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp () {
+        repository = new CycleAggregateRepository(jdbcTemplate);
+    }
+
+    private Paiement paiement (int numeroCycle, String montant) {
+        Tontine tontine = new Tontine();
+        tontine.setId(tontineId);
+        Paiement paiement = new Paiement();
+        paiement.setTontine(tontine);
+        paiement.setTypePaiement(TypePaiement.COTISATION);
+        paiement.setNumeroCycle(numeroCycle);
+        paiement.setMontant(new BigDecimal(montant));
+        return paiement;
+    }
+
+    private void insert (int numeroCycle, String montant, StatutPaiement statut, String penalite, int joursRetard) {
+        jdbcTemplate.update(INSERT_PAIEMENT_SQL, new MapSqlParameterSource()
+                .addValue("id", UUID.randomUUID())
+                .addValue("tontineId", tontineId)
+                .addValue("montant", new BigDecimal(montant))
+                .addValue("statut", statut.name())
+                .addValue("numeroCycle", numeroCycle)
+                .addValue("penalite", new BigDecimal(penalite))
+                .addValue("joursRetard", joursRetard));
+    }
+
+    private static void assertAggregate (CycleAggregateDto aggregate, String attendu, String collecte,
+                                         String penalites, int payes, int retards) {
+        assertEquals(0, new BigDecimal(attendu).compareTo(aggregate.montantAttendu()), "montant attendu");
+        assertEquals(0, new BigDecimal(collecte).compareTo(aggregate.montantCollecte()), "montant collecté");
+        assertEquals(0, new BigDecimal(penalites).compareTo(aggregate.montantPenalites()), "pénalités");
+        assertEquals(payes, aggregate.nombrePayes());
+        assertEquals(retards, aggregate.nombreRetards());
+    }
+
+    @Test
+    void incrementalDeltasFollowPaymentLifecycle () {
+        Paiement paiement = paiement(1, "5000");
+        CycleContribution cree = CycleContribution.of(paiement);
+        repository.appliquer(cree);
+
+        paiement.setStatut(StatutPaiement.CONFIRME);
+        paiement.setJoursRetard(3);
+        paiement.setMontantPenalite(new BigDecimal("250"));
+        CycleContribution confirme = CycleContribution.of(paiement);
+        repository.appliquer(confirme.minus(cree));
+
+        Paiement autre = paiement(1, "5000");
+        CycleContribution autreCree = CycleContribution.of(autre);
+        repository.appliquer(autreCree);
+        autre.setStatut(StatutPaiement.ANNULE);
+        repository.appliquer(CycleContribution.of(autre).minus(autreCree));
+
+        assertAggregate(repository.findCycle(tontineId, 1).orElseThrow(), "5000", "5000", "250", 1, 1);
+    }
+
+    @Test
+    void batchDeltasAddUpPerCycle () {
+        repository.appliquerTous(List.of(
+                new CycleContribution(tontineId, 1, new BigDecimal("10000"), BigDecimal.ZERO, BigDecimal.ZERO, 0, 0),
+                new CycleContribution(tontineId, 2, new BigDecimal("10000"), BigDecimal.ZERO, BigDecimal.ZERO, 0, 0),
+                new CycleContribution(tontineId, 1, BigDecimal.ZERO, new BigDecimal("5000"), BigDecimal.ZERO, 1, 0)));
+
+        List<CycleAggregateDto> aggregates = repository.findByTontine(tontineId);
+
+        assertEquals(2, aggregates.size());
+        assertAggregate(aggregates.get(0), "10000", "5000", "0", 1, 0);
+        assertAggregate(aggregates.get(1), "10000", "0", "0", 0, 0);
+    }
+
+    @Test
+    void rebuildRepairsDriftFromBulkUpdates () {
+        insert(1, "5000", StatutPaiement.CONFIRME, "0", 0);
+        insert(1, "5000", StatutPaiement.CONFIRME, "100", 2);
+        insert(2, "5000", StatutPaiement.EN_ATTENTE, "0", 0);
+        insert(2, "5000", StatutPaiement.ANNULE, "0", 0);
+        // Écart laissé par une écriture qui a contourné le listener
+        repository.appliquer(
+                new CycleContribution(tontineId, 1, new BigDecimal("999"), BigDecimal.ZERO, BigDecimal.ZERO, 7, 0));
+
+        int cycles = transactionTemplate.execute(status -> repository.reconstruire(tontineId));
+
+        List<CycleAggregateDto> aggregates = repository.findByTontine(tontineId);
+        assertEquals(2, cycles);
+        assertAggregate(aggregates.get(0), "10000", "10000", "100", 2, 1);
+        assertAggregate(aggregates.get(1), "5000", "0", "0", 0, 0);
+    }
+
+    @Test
+    void rebuildAllMatchesIncrementalState () {
+        insert(1, "5000", StatutPaiement.CONFIRME, "0", 0);
+        insert(1, "5000", StatutPaiement.EN_ATTENTE, "0", 0);
+        repository.appliquerTous(List.of(
+                new CycleContribution(tontineId, 1, new BigDecimal("10000"), new BigDecimal("5000"), BigDecimal.ZERO,
+                        1, 0)));
+        List<CycleAggregateDto> incremental = repository.findByTontine(tontineId);
+
+        transactionTemplate.execute(status -> repository.reconstruireTout());
+
+        List<CycleAggregateDto> rebuilt = repository.findByTontine(tontineId);
+        assertEquals(1, rebuilt.size());
+        assertAggregate(rebuilt.get(0), incremental.get(0).montantAttendu().toPlainString(),
+                incremental.get(0).montantCollecte().toPlainString(), "0", incremental.get(0).nombrePayes(), 0);
+    }
+}
@@ -0,0 +1,328 @@
+package sn.ditontineplateform.domaine.schedule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.ditontineplateform.domaine.entity.CycleContribution;
+import sn.ditontineplateform.domaine.entity.Tontine;
+import sn.ditontineplateform.domaine.enumeration.StatutTontine;
+import sn.ditontineplateform.domaine.enumeration.TypeTirage;
+import sn.ditontineplateform.domaine.enumeration.TypeTontine;
+import sn.ditontineplateform.domaine.repository.CycleAggregateRepository;
+import sn.ditontineplateform.exception.ExceptionFactory;
+import sn.ditontineplateform.exception.ValidationException;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Échéancier généré par {@link TontineScheduleEngine} et déclenchement par {@link TontineActivationHandler} à la
+ * validation d'une transaction Spring, sur H2 (mode PostgreSQL). L'upsert des agrégats de cycle, propre à PostgreSQL,
+ * est remplacé par un enregistrement des écarts.
+ */
+class TontineScheduleEngineTest {
+
+    private static final String SCHEMA = """
+            CREATE TABLE participations (
+                id uuid PRIMARY KEY, tontine_id uuid NOT NULL, statut varchar(50) NOT NULL,
+                montant_cotisation numeric(15, 2), position_tirage integer, date_acceptation timestamp,
+                date_demande timestamp NOT NULL, is_deleted boolean NOT NULL DEFAULT false);
+            CREATE TABLE paiements (
+                id uuid PRIMARY KEY, is_deleted boolean NOT NULL, version bigint, created_at timestamp,
+                updated_at timestamp, participation_id uuid, tontine_id uuid NOT NULL, montant numeric(15, 2) NOT NULL,
+                methode_paiement varchar(50) NOT NULL, type_paiement varchar(50) NOT NULL, statut varchar(50) NOT NULL,
+                date_echeance date, numero_cycle integer, montant_penalite numeric(15, 2), jours_retard integer,
+                frais_transaction numeric(15, 2), is_automatique boolean, tentative integer);
+            CREATE TABLE jackpots (
+                id uuid PRIMARY KEY, is_deleted boolean NOT NULL, version bigint, created_at timestamp,
+                updated_at timestamp, tontine_id uuid NOT NULL, beneficiaire_id uuid NOT NULL,
+                numero_cycle integer NOT NULL, montant numeric(15, 2) NOT NULL, date_distribution date,
+                statut varchar(50) NOT NULL, frais_gestion numeric(15, 2), penalites_deduites numeric(15, 2),
+                montant_net numeric(15, 2), is_prioritaire boolean, jours_notification integer);
+            """;
+
+    private static final String INSERT_PARTICIPATION_SQL = """
+            INSERT INTO participations (id, tontine_id, statut, montant_cotisation, date_acceptation, date_demande)
+            VALUES (?, ?, 'ACTIVE', ?, ?, ?)
+            """;
+
+    private static final LocalDate DATE_DEBUT = LocalDate.of(2026, 1, 5);
+    private static final int FREQUENCE = 30;
+
+    private static AnnotationConfigApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static TontineScheduleEngine engine;
+    private static RecordingAggregates aggregates;
+    private static EntityManager entityManager;
+
+    private final UUID tontineId = UUID.randomUUID();
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({TontineScheduleEngine.class, TontineActivationHandler.class})
+    static class ScheduleConfig {
+
+        @Bean
+        DataSource dataSource () {
+            return new DriverManagerDataSource("jdbc:h2:mem:schedule;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager (DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate (DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        RecordingAggregates cycleAggregateRepository () {
+            return new RecordingAggregates();
+        }
+
+        @Bean
+        ExceptionFactory exceptionFactory () {
+            return new ExceptionFactory();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry () {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        EntityManager entityManager () {
+            return mock(EntityManager.class);
+        }
+    }
+
+    /** Écarts transmis aux agrégats de cycle. */
+    static class RecordingAggregates extends CycleAggregateRepository {
+
+        final List<CycleContribution> deltas = new ArrayList<>();
+
+        RecordingAggregates () {
+            super(null);
+        }
+
+        @Override
+        public void appliquerTous (List<CycleContribution> contributions) {
+            deltas.addAll(contributions);
+        }
+    }
+
+    @BeforeAll
+    static void startContext () {
+        context = new AnnotationConfigApplicationContext(ScheduleConfig.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute(SCHEMA);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        engine = context.getBean(TontineScheduleEngine.class);
+        aggregates = context.getBean(RecordingAggregates.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @AfterAll
+    static void closeContext () {
+        context.close();
+    }
+
+    @BeforeEach
+    void reset () {
+        aggregates.deltas.clear();
+        clearInvocations(entityManager);
+    }
+
+    private Tontine tontine (TypeTontine type, int nombreMaxParticipants) {
+        Tontine tontine = new Tontine();
+        tontine.setId(tontineId);
+        tontine.setType(type);
+        tontine.setTypeTirage(TypeTirage.AUCUN);
+        tontine.setStatut(StatutTontine.EN_ATTENTE);
+        tontine.setStatutCharge(StatutTontine.EN_ATTENTE);
+        tontine.setNombreMaxParticipants(nombreMaxParticipants);
+        tontine.setDateDebut(DATE_DEBUT);
+        tontine.setFrequenceCotisationJours(FREQUENCE);
+        tontine.setMontantCotisation(new BigDecimal("10000"));
+        return tontine;
+    }
+
+    /** Participants actifs acceptés dans l'ordre donné ; un montant {@code null} reprend celui de la tontine. */
+    private List<UUID> participants (String... montants) {
+        List<UUID> ids = new ArrayList<>();
+        LocalDateTime acceptation = LocalDateTime.of(2025, 12, 1, 9, 0);
+        for (int i = 0; i < montants.length; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update(INSERT_PARTICIPATION_SQL, id, tontineId,
+                    montants[i] != null ? new BigDecimal(montants[i]) : null,
+                    Timestamp.valueOf(acceptation.plusDays(i)), Timestamp.valueOf(acceptation.minusDays(1)));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private int planifier (Tontine tontine) {
+        return transactionTemplate.execute(status -> engine.planifier(tontine));
+    }
+
+    private int count (String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + table + " WHERE tontine_id = ?", Integer.class, tontineId);
+    }
+
+    private static void activer (Tontine tontine) {
+        Set<Tontine> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        candidates.add(tontine);
+        context.publishEvent(new TontineActivationEvent(candidates));
+        // Activation après la publication : seul l'état à la validation compte
+        tontine.setStatut(StatutTontine.ACTIVE);
+    }
+
+    @Test
+    void oneContributionPerParticipantAndCycleWithSpacedDueDates () {
+        participants(null, null, "15000");
+
+        int cotisations = planifier(tontine(TypeTontine.CLASSIQUE, 5));
+
+        assertEquals(9, cotisations);
+        assertEquals(9, count("paiements"));
+        List<Map<String, Object>> cycles = jdbcTemplate.queryForList("""
+                SELECT numero_cycle, date_echeance, count(*) AS cotisations, sum(montant) AS total
+                FROM paiements WHERE tontine_id = ? GROUP BY numero_cycle, date_echeance ORDER BY numero_cycle
+                """, tontineId);
+        assertEquals(3, cycles.size());
+        for (int n = 1; n <= 3; n++) {
+            Map<String, Object> cycle = cycles.get(n - 1);
+            assertEquals(n, ((Number) cycle.get("numero_cycle")).intValue());
+            assertEquals(DATE_DEBUT.plusDays((long) (n - 1) * FREQUENCE),
+                    ((java.sql.Date) cycle.get("date_echeance")).toLocalDate());
+            assertEquals(3, ((Number) cycle.get("cotisations")).intValue());
+            assertEquals(0, new BigDecimal("35000").compareTo((BigDecimal) cycle.get("total")));
+        }
+        assertEquals(3, aggregates.deltas.size());
+        assertEquals(0, new BigDecimal("35000").compareTo(aggregates.deltas.get(0).montantAttendu()));
+    }
+
+    @Test
+    void oneProgrammedJackpotPerCycleInDrawOrder () {
+        List<UUID> ordre = participants(null, null, null);
+
+        planifier(tontine(TypeTontine.CLASSIQUE, 3));
+
+        List<Map<String, Object>> jackpots = jdbcTemplate.queryForList(
+                "SELECT * FROM jackpots WHERE tontine_id = ? ORDER BY numero_cycle", tontineId);
+        assertEquals(3, jackpots.size());
+        for (int n = 1; n <= 3; n++) {
+            Map<String, Object> jackpot = jackpots.get(n - 1);
+            UUID beneficiaire = ordre.get(n - 1);
+            assertEquals(beneficiaire, jackpot.get("beneficiaire_id"));
+            assertEquals("PROGRAMME", jackpot.get("statut"));
+            assertEquals(0, new BigDecimal("30000").compareTo((BigDecimal) jackpot.get("montant")));
+            assertEquals(DATE_DEBUT.plusDays((long) (n - 1) * FREQUENCE),
+                    ((java.sql.Date) jackpot.get("date_distribution")).toLocalDate());
+            assertEquals(n, jdbcTemplate.queryForObject(
+                    "SELECT position_tirage FROM participations WHERE id = ?", Integer.class, beneficiaire));
+        }
+    }
+
+    @Test
+    void alreadyScheduledTontineIsSkipped () {
+        participants(null, null);
+        Tontine tontine = tontine(TypeTontine.CLASSIQUE, 2);
+        planifier(tontine);
+
+        assertEquals(0, planifier(tontine));
+        assertEquals(4, count("paiements"));
+        assertEquals(2, count("jackpots"));
+    }
+
+    @Test
+    void moreActiveParticipantsThanPlacesIsRejected () {
+        participants(null, null, null);
+
+        assertThrows(ValidationException.class, () -> planifier(tontine(TypeTontine.CLASSIQUE, 2)));
+        assertEquals(0, count("paiements"));
+    }
+
+    @Test
+    void activationPlansBeforeCommit () {
+        participants(null, null);
+        Tontine tontine = tontine(TypeTontine.CLASSIQUE, 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            activer(tontine);
+            assertEquals(0, count("paiements"));
+        });
+
+        assertEquals(4, count("paiements"));
+        assertEquals(StatutTontine.ACTIVE, tontine.getStatutCharge());
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void activationWithoutScheduleKeepsLoadedStatus () {
+        Tontine tontine = tontine(TypeTontine.EVENEMENTIELLE, 2);
+
+        transactionTemplate.executeWithoutResult(status -> activer(tontine));
+
+        assertEquals(StatutTontine.EN_ATTENTE, tontine.getStatutCharge());
+        assertEquals(0, count("paiements"));
+    }
+
+    @Test
+    void activationWithoutParticipantIsRolledBack () {
+        Tontine tontine = tontine(TypeTontine.CLASSIQUE, 2);
+
+        assertThrows(ValidationException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> activer(tontine)));
+
+        assertEquals(StatutTontine.EN_ATTENTE, tontine.getStatutCharge());
+    }
+
+    @Test
+    void tontineLeftPendingIsNotPlanned () {
+        participants(null, null);
+        Tontine tontine = tontine(TypeTontine.CLASSIQUE, 2);
+
+        transactionTemplate.executeWithoutResult(status -> context.publishEvent(
+                new TontineActivationEvent(Set.of(tontine))));
+
+        assertEquals(0, count("paiements"));
+        verify(entityManager, never()).flush();
+    }
+}
@@ -0,0 +1,63 @@
+package sn.ditontineplateform.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    private static CsvReader reader (String csv) {
+        return new CsvReader(new StringReader(csv), ',');
+    }
+
+    @Test
+    void quotedFieldKeepsSeparators () throws IOException {
+        try (CsvReader reader = reader("awa,\"Diop, Awa\",dakar\r\n")) {
+            assertEquals(List.of("awa", "Diop, Awa", "dakar"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void doubledQuotesAreUnescaped () throws IOException {
+        try (CsvReader reader = reader("\"dit \"\"Awa\"\"\",\"\"\"\"\n")) {
+            assertEquals(List.of("dit \"Awa\"", "\""), reader.next());
+        }
+    }
+
+    @Test
+    void quotedFieldKeepsEmbeddedCrlf () throws IOException {
+        try (CsvReader reader = reader("1,\"Rue 10\r\nMédina\",x\r\n2,b,y\r\n")) {
+            assertEquals(List.of("1", "Rue 10\r\nMédina", "x"), reader.next());
+            assertEquals(3, reader.line());
+            assertEquals(List.of("2", "b", "y"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void trailingSeparatorYieldsEmptyField () throws IOException {
+        try (CsvReader reader = reader("a,b,\r\nc,,\nd,")) {
+            assertEquals(List.of("a", "b", ""), reader.next());
+            assertEquals(List.of("c", "", ""), reader.next());
+            assertEquals(List.of("d", ""), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void malformedQuotingIsRejected () throws IOException {
+        try (CsvReader reader = reader("\"ouvert,b\n")) {
+            assertThrows(IOException.class, reader::next);
+        }
+        try (CsvReader reader = reader("\"a\"b,c\n")) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+}
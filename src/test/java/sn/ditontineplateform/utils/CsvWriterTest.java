@@ -0,0 +1,47 @@
+package sn.ditontineplateform.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTest {
+
+    private static String write (Object... values) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out, ',')) {
+            writer.writeRow(values);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void quotesFieldsThatNeedIt () throws IOException {
+        assertEquals("a,\"b,c\",\"d\"\"e\",\"f\ng\",\r\n", write("a", "b,c", "d\"e", "f\ng", null));
+    }
+
+    @Test
+    void neutralizesFormulaPrefixes () throws IOException {
+        assertEquals("'=SUM(A1:A9),'=cmd|' /C calc'!A0,'+A1,'-1+2,'@cmd,\"'=1,2\"\r\n",
+                write("=SUM(A1:A9)", "=cmd|' /C calc'!A0", "+A1", "-1+2", "@cmd", "=1,2"));
+    }
+
+    @Test
+    void leavesSignedNumbersAndPhoneNumbersUntouched () throws IOException {
+        String csv = write("+221771234567", "-1", "-12.5", "+0");
+
+        assertEquals("+221771234567,-1,-12.5,+0\r\n", csv);
+        try (CsvReader reader = new CsvReader(new StringReader(csv), ',')) {
+            assertEquals(List.of("+221771234567", "-1", "-12.5", "+0"), reader.next());
+        }
+    }
+
+    @Test
+    void leavesNumbersAndPlainTextUntouched () throws IOException {
+        assertEquals("-42,awa,a=b,\r\n", write(-42, "awa", "a=b", ""));
+    }
+}
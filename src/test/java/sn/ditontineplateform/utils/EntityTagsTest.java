@@ -0,0 +1,25 @@
+package sn.ditontineplateform.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityTagsTest {
+
+    @Test
+    void etagIsTheQuotedVersion () {
+        assertEquals("\"7\"", EntityTags.of(7L));
+        assertNull(EntityTags.of(null));
+    }
+
+    @Test
+    void ifMatchComparesStrongTagsOnly () {
+        assertTrue(EntityTags.matches("\"3\", \"7\"", 7L));
+        assertTrue(EntityTags.matches("*", 7L));
+        assertFalse(EntityTags.matches("\"6\"", 7L));
+        assertFalse(EntityTags.matches("W/\"7\"", 7L));
+    }
+}
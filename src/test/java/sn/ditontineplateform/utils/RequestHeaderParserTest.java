@@ -0,0 +1,72 @@
+package sn.ditontineplateform.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestHeaderParserTest {
+
+    // "??>>" s'encode avec un "-" en base64url : le décodeur Base64 standard refuserait ce payload
+    private static final String PAYLOAD = """
+            {"sub":"kc-123","email":"awa@ditontine.sn","name":"??>>","realm_access":{"roles":["TONTINE_ADMIN"]}}""";
+
+    private static String token () {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(PAYLOAD.getBytes(StandardCharsets.UTF_8))
+                + ".signature";
+    }
+
+    private static MockHttpServletRequest request (String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    @Test
+    void extractRawTokenStripsBearerPrefix () {
+        assertEquals(token(), RequestHeaderParser.extractRawToken(request("Bearer " + token())));
+    }
+
+    @Test
+    void extractRawTokenIgnoresOtherSchemes () {
+        assertNull(RequestHeaderParser.extractRawToken(request(null)));
+        assertNull(RequestHeaderParser.extractRawToken(request("Basic dXNlcjpwYXNz")));
+        assertNull(RequestHeaderParser.extractRawToken(request(token())));
+    }
+
+    @Test
+    void helpersReadBase64UrlPayload () {
+        MockHttpServletRequest request = request("Bearer " + token());
+
+        assertEquals("kc-123", RequestHeaderParser.extractUserIdFromJwt(request));
+        assertEquals("awa@ditontine.sn", RequestHeaderParser.extractEmailFromJwt(request));
+        assertEquals(List.of("TONTINE_ADMIN"), RequestHeaderParser.extractRolesFromJwt(request));
+    }
+
+    @Test
+    void claimsAreDecodedOncePerRequest () {
+        MockHttpServletRequest request = request("Bearer " + token());
+
+        JwtClaims first = RequestHeaderParser.claims(request);
+
+        assertSame(first, RequestHeaderParser.claims(request));
+        assertSame(first, request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void missingOrMalformedTokenYieldsEmptyClaims () {
+        assertSame(JwtClaims.EMPTY, RequestHeaderParser.claims(request(null)));
+        assertSame(JwtClaims.EMPTY, RequestHeaderParser.claims(request("Bearer not-a-jwt")));
+        assertNull(RequestHeaderParser.extractUserIdFromJwt(request("Basic dXNlcjpwYXNz")));
+    }
+}